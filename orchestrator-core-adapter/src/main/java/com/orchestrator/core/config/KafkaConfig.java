@@ -1,5 +1,7 @@
 package com.orchestrator.core.config;
 
+import com.orchestrator.core.metrics.LatencyTracker;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -14,7 +16,9 @@ import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.transaction.KafkaTransactionManager;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -22,20 +26,49 @@ import java.util.Map;
 public class KafkaConfig {
     
     private final OrchestratorProperties properties;
+    private final LatencyTracker latencyTracker;
     
-    public KafkaConfig(OrchestratorProperties properties) {
+    public KafkaConfig(OrchestratorProperties properties, LatencyTracker latencyTracker) {
         this.properties = properties;
+        this.latencyTracker = latencyTracker;
     }
     
     @Bean
     public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
+        DefaultKafkaProducerFactory<String, String> factory = createProducerFactory(defaultBootstrapServers(), "default", 0);
+        
+        // Transactional producers are only created for exactly-once mode; the factory appends a
+        // per-producer counter, and the instance id keeps prefixes unique across pods so
+        // replicas never fence each other's transactions
+        if (properties.producer().exactlyOnce()) {
+            factory.setTransactionIdPrefix(properties.producer().transactionIdPrefix() + properties.instanceId() + "-");
+        }
         
-        // Use producer-specific bootstrap servers if provided, otherwise fall back to consumer bootstrap servers
-        String bootstrapServers = properties.producer().bootstrapServers() != null 
+        return factory;
+    }
+    
+    // Use producer-specific bootstrap servers if provided, otherwise fall back to consumer bootstrap servers
+    private String defaultBootstrapServers() {
+        return properties.producer().bootstrapServers() != null 
             ? properties.producer().bootstrapServers() 
             : properties.consumer().bootstrapServers();
-            
+    }
+    
+    private DefaultKafkaProducerFactory<String, String> createProducerFactory(String bootstrapServers, String poolName, int index) {
+        Map<String, Object> configProps = producerConfigs(bootstrapServers);
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "orchestrator-" + poolName + "-" + index);
+        
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(configProps);
+        
+        // Per-producer record-queue-time, batch-size and send-rate metrics, tagged by client id
+        factory.addListener(new MicrometerProducerListener<>(latencyTracker.getMeterRegistry(), List.of(Tag.of("pool", poolName))));
+        
+        return factory;
+    }
+    
+    private Map<String, Object> producerConfigs(String bootstrapServers) {
+        Map<String, Object> configProps = new HashMap<>();
+        
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
@@ -52,23 +85,77 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, properties.producer().maxInFlightRequestsPerConnection());
         configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) properties.producer().deliveryTimeout().toMillis());
         
-        // Only set transactional ID if idempotence is enabled
-        if (properties.producer().enableIdempotence()) {
-            configProps.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, properties.producer().transactionIdPrefix());
+        if (properties.producer().partitionerClass() != null) {
+            configProps.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, properties.producer().partitionerClass());
         }
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return configProps;
     }
     
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(producerFactory);
+        
+        // Sends outside a listener transaction (e.g. the outbox relay) use a plain producer
+        template.setAllowNonTransactional(true);
+        
+        return template;
     }
     
+    /**
+     * Producer pools for the default cluster and the named routing clusters, keyed by effective
+     * producer config so clusters sharing brokers share producers. Pooled producers share the
+     * default producer tuning and are never transactional: a Kafka transaction cannot span
+     * clusters, and listener transactions are bound to the producer factory bean, so in
+     * exactly-once mode the default cluster keeps that single producer, and routes to any other
+     * cluster are rejected at startup.
+     */
     @Bean
-    @ConditionalOnProperty(value = "orchestrator.producer.enable-idempotence", havingValue = "true")
-    public KafkaTransactionManager kafkaTransactionManager() {
-        return new KafkaTransactionManager(producerFactory());
+    public ProducerClusterRegistry producerClusterRegistry(KafkaTemplate<String, String> kafkaTemplate) {
+        int poolSize = Math.max(1, properties.producer().poolSize());
+        int defaultPoolSize = properties.producer().exactlyOnce() ? 1 : poolSize;
+        
+        String defaultServers = defaultBootstrapServers();
+        ProducerPool defaultPool = createPool("default", defaultServers, defaultPoolSize, kafkaTemplate);
+        
+        Map<Map<String, Object>, ProducerPool> poolsByConfig = new HashMap<>();
+        poolsByConfig.put(producerConfigs(defaultServers), defaultPool);
+        
+        Map<String, ProducerPool> clusterPools = new HashMap<>();
+        properties.routing().clusters().forEach((cluster, bootstrapServers) ->
+            clusterPools.put(cluster, poolsByConfig.computeIfAbsent(producerConfigs(bootstrapServers),
+                configs -> createPool(cluster, bootstrapServers, poolSize, null))));
+        
+        // Sends through another cluster's producers would not be part of the offset transaction;
+        // rules naming an undeclared cluster are rejected by the router
+        if (properties.producer().exactlyOnce()) {
+            for (OrchestratorProperties.RouteRule rule : properties.routing().rules()) {
+                if (clusterPools.containsKey(rule.cluster()) && clusterPools.get(rule.cluster()) != defaultPool) {
+                    throw new IllegalStateException("Route to topic " + rule.topic() + " targets cluster " + rule.cluster()
+                        + ", but producer.exactly-once only supports routes to the default cluster");
+                }
+            }
+        }
+        
+        return new ProducerClusterRegistry(defaultPool, clusterPools);
+    }
+    
+    private ProducerPool createPool(String poolName, String bootstrapServers, int size, KafkaTemplate<String, String> primary) {
+        List<KafkaTemplate<String, String>> templates = new ArrayList<>(size);
+        if (primary != null) {
+            templates.add(primary);
+        }
+        for (int i = templates.size(); i < size; i++) {
+            templates.add(new KafkaTemplate<>(createProducerFactory(bootstrapServers, poolName, i)));
+        }
+        
+        return new ProducerPool(templates);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.producer.exactly-once", havingValue = "true")
+    public KafkaTransactionManager<String, String> kafkaTransactionManager(ProducerFactory<String, String> producerFactory) {
+        return new KafkaTransactionManager<>(producerFactory);
     }
     
     @Bean
@@ -108,4 +195,24 @@ public class KafkaConfig {
         
         return factory;
     }
+    
+    /**
+     * Batch listener container factory for exactly-once mode. Each poll batch is processed
+     * inside one producer transaction started by the container, and the consumed offsets are
+     * committed through sendOffsetsToTransaction when that transaction commits.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.producer.exactly-once", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, String> transactionalKafkaListenerContainerFactory(
+            KafkaTransactionManager<String, String> kafkaTransactionManager) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(properties.consumer().concurrency());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().setTransactionManager(kafkaTransactionManager);
+        factory.getContainerProperties().setPollTimeout(properties.consumer().pollTimeout().toMillis());
+        
+        return factory;
+    }
 }
\ No newline at end of file
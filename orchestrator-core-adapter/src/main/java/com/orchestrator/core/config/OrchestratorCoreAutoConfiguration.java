@@ -1,22 +1,50 @@
 package com.orchestrator.core.config;
 
 import com.orchestrator.core.controller.MetricsController;
+import com.orchestrator.core.controller.RedriveController;
+import com.orchestrator.core.maintenance.MaintenanceScheduler;
+import com.orchestrator.core.metrics.ConsumerLagMonitor;
+import com.orchestrator.core.metrics.EventStatsRefresher;
 import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.metrics.ScalingAdvisor;
+import com.orchestrator.core.pipeline.PipelineRegistry;
+import com.orchestrator.core.routing.MessageRouter;
+import com.orchestrator.core.routing.RuleBasedMessageRouter;
 import com.orchestrator.core.service.EventConsumerService;
 import com.orchestrator.core.service.EventPublisherService;
+import com.orchestrator.core.service.OutboxRelayService;
+import com.orchestrator.core.service.RedriveService;
+import com.orchestrator.core.service.TransactionalEventConsumerService;
+import com.orchestrator.core.store.CompressingPayloadCodec;
+import com.orchestrator.core.store.CountingEventStore;
 import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.store.KafkaPayloadFetcher;
+import com.orchestrator.core.store.PayloadCodec;
+import com.orchestrator.core.store.ReferencePayloadCodec;
 import com.orchestrator.core.transformer.DefaultMessageTransformer;
 import com.orchestrator.core.transformer.MessageTransformer;
+import com.orchestrator.core.tuning.ProducerBatchTuner;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Auto-configuration for the Orchestrator Core Adapter
  * Provides all core services and configurations needed for event orchestration
@@ -34,20 +62,45 @@ public class OrchestratorCoreAutoConfiguration {
         return new DefaultMessageTransformer();
     }
     
+    /**
+     * Opt-in; wraps every EventStore bean, including pipeline stores, so status counts are
+     * served from in-memory counters
+     */
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.stats.in-memory-counters", havingValue = "true")
+    public static BeanPostProcessor countingEventStorePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof EventStore eventStore && !(bean instanceof CountingEventStore)
+                    ? new CountingEventStore(eventStore)
+                    : bean;
+            }
+        };
+    }
+    
     @Bean
     public LatencyTracker latencyTracker(MeterRegistry meterRegistry) {
         return new LatencyTracker(meterRegistry);
     }
     
+    @Bean
+    @ConditionalOnMissingBean
+    public MessageRouter messageRouter(OrchestratorProperties properties) {
+        return new RuleBasedMessageRouter(properties);
+    }
+    
     @Bean
     public EventPublisherService eventPublisherService(
-            KafkaTemplate<String, String> kafkaTemplate,
+            ProducerClusterRegistry producerClusterRegistry,
+            MessageRouter messageRouter,
             OrchestratorProperties properties,
             LatencyTracker latencyTracker) {
-        return new EventPublisherService(kafkaTemplate, properties, latencyTracker);
+        return new EventPublisherService(producerClusterRegistry, messageRouter, properties, latencyTracker);
     }
     
     @Bean
+    @ConditionalOnProperty(value = "orchestrator.producer.exactly-once", havingValue = "false", matchIfMissing = true)
     public EventConsumerService eventConsumerService(
             EventStore eventStore,
             EventPublisherService publisherService,
@@ -57,10 +110,143 @@ public class OrchestratorCoreAutoConfiguration {
         return new EventConsumerService(eventStore, publisherService, messageTransformer, properties, latencyTracker);
     }
     
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.producer.exactly-once", havingValue = "true")
+    public TransactionalEventConsumerService transactionalEventConsumerService(
+            EventStore eventStore,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        return new TransactionalEventConsumerService(eventStore, publisherService, messageTransformer, properties, latencyTracker);
+    }
+    
+    /**
+     * Only for the OUTBOX strategy; OrchestratorProperties rejects the relay with any other
+     */
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.outbox.relay-enabled", havingValue = "true")
+    @ConditionalOnMissingBean(OutboxRelayService.class)
+    public OutboxRelayService outboxRelayService(
+            EventStore eventStore,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        return new OutboxRelayService(eventStore, publisherService, messageTransformer, properties, latencyTracker);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.redrive.enabled", havingValue = "true")
+    public RedriveService redriveService(
+            EventStore eventStore,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        return new RedriveService(eventStore, publisherService, messageTransformer, properties, latencyTracker);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.redrive.enabled", havingValue = "true")
+    public RedriveController redriveController(RedriveService redriveService) {
+        return new RedriveController(redriveService);
+    }
+    
+    /**
+     * Runs the redrive and the retention cleanup on one leased instance at a time
+     */
+    @Bean
+    public MaintenanceScheduler maintenanceScheduler(
+            EventStore eventStore,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker,
+            ObjectProvider<RedriveService> redriveService) {
+        MaintenanceScheduler scheduler = new MaintenanceScheduler(eventStore, properties, latencyTracker);
+        
+        redriveService.ifAvailable(redrive -> scheduler.register("redrive",
+            properties.redrive().interval(), properties.redrive().maxRunTime(), true, redrive::redrive));
+        
+        OrchestratorProperties.MaintenanceConfig maintenance = properties.maintenance();
+        if (maintenance.retentionEnabled()) {
+            Duration retentionPeriod = properties.database().retentionPeriod();
+            scheduler.register("retention", maintenance.retentionInterval(), maintenance.retentionBudget(), true,
+                deadline -> eventStore.cleanupOldEvents(retentionPeriod, deadline));
+        }
+        return scheduler;
+    }
+    
+    @Bean
+    public PipelineRegistry pipelineRegistry(
+            OrchestratorProperties properties,
+            ListableBeanFactory beanFactory,
+            ProducerClusterRegistry producerClusterRegistry,
+            LatencyTracker latencyTracker) {
+        return new PipelineRegistry(properties, beanFactory, producerClusterRegistry, latencyTracker);
+    }
+    
+    @Bean
+    public ConsumerLagMonitor consumerLagMonitor(
+            KafkaListenerEndpointRegistry endpointRegistry,
+            PipelineRegistry pipelineRegistry) {
+        return new ConsumerLagMonitor(endpointRegistry, pipelineRegistry);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.tuning.enabled", havingValue = "true")
+    public ProducerBatchTuner producerBatchTuner(
+            ProducerClusterRegistry producerClusterRegistry,
+            ConsumerLagMonitor consumerLagMonitor,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        return new ProducerBatchTuner(producerClusterRegistry, consumerLagMonitor, properties, latencyTracker);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(value = "orchestrator.scaling.enabled", havingValue = "true")
+    public ScalingAdvisor scalingAdvisor(
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        return new ScalingAdvisor(properties, latencyTracker);
+    }
+    
+    /**
+     * Picked up by the event store adapters, which then persist payloads compressed,
+     * or in REFERENCE mode only as a pointer to the source record
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(value = "orchestrator.payload-codec.enabled", havingValue = "true")
+    public PayloadCodec payloadCodec(
+            OrchestratorProperties properties,
+            ResourceLoader resourceLoader,
+            LatencyTracker latencyTracker) throws IOException {
+        Map<String, byte[]> dictionaries = new HashMap<>();
+        for (Map.Entry<String, String> entry : properties.payloadCodec().dictionaries().entrySet()) {
+            try (InputStream input = resourceLoader.getResource(entry.getValue()).getInputStream()) {
+                dictionaries.put(entry.getKey(), input.readAllBytes());
+            }
+        }
+        PayloadCodec codec = new CompressingPayloadCodec(properties.payloadCodec(), dictionaries, latencyTracker);
+        
+        if (properties.payloadCodec().mode() == OrchestratorProperties.PayloadStorageMode.REFERENCE) {
+            codec = new ReferencePayloadCodec(new KafkaPayloadFetcher(properties), codec);
+        }
+        return codec;
+    }
+    
+    @Bean
+    public EventStatsRefresher eventStatsRefresher(
+            EventStore eventStore,
+            LatencyTracker latencyTracker) {
+        return new EventStatsRefresher(eventStore, latencyTracker);
+    }
+    
     @Bean
     public MetricsController metricsController(
             LatencyTracker latencyTracker,
-            EventStore eventStore) {
-        return new MetricsController(latencyTracker, eventStore);
+            EventStatsRefresher eventStatsRefresher,
+            ObjectProvider<ScalingAdvisor> scalingAdvisor) {
+        return new MetricsController(latencyTracker, eventStatsRefresher, scalingAdvisor.getIfAvailable());
     }
 }
\ No newline at end of file
@@ -8,6 +8,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @ConfigurationProperties(prefix = "orchestrator")
 @Validated
@@ -16,9 +19,115 @@ public record OrchestratorProperties(
     @NotNull @Valid ProducerConfig producer,
     @NotNull @Valid DatabaseConfig database,
     @Valid ResilienceConfig resilience,
-    @Valid MonitoringConfig monitoring
+    @Valid MonitoringConfig monitoring,
+    @Valid OutboxConfig outbox,
+    @Valid HeadersConfig headers,
+    @Valid RoutingConfig routing,
+    @Valid List<PipelineConfig> pipelines,
+    @Valid TuningConfig tuning,
+    @Valid ScalingConfig scaling,
+    @Valid StatsConfig stats,
+    @Valid PayloadCodecConfig payloadCodec,
+    @Valid RedriveConfig redrive,
+    @Valid MaintenanceConfig maintenance,
+    String instanceId
 ) {
     
+    public OrchestratorProperties {
+        if (outbox == null) {
+            outbox = new OutboxConfig(false, 0, null, null, null);
+        }
+        if (headers == null) {
+            headers = new HeadersConfig(null, null);
+        }
+        if (routing == null) {
+            routing = new RoutingConfig(null, false, null);
+        }
+        if (pipelines == null) {
+            pipelines = List.of();
+        }
+        if (tuning == null) {
+            tuning = new TuningConfig(false, null, 0, null, null, 0, 0, 0, 0, 0);
+        }
+        if (scaling == null) {
+            scaling = new ScalingConfig(false, null, null, 0, 0, 0, null);
+        }
+        if (stats == null) {
+            stats = new StatsConfig(null, null);
+        }
+        if (payloadCodec == null) {
+            payloadCodec = new PayloadCodecConfig(false, null, null, 0, 0, null, null, 0);
+        }
+        if (redrive == null) {
+            redrive = new RedriveConfig(false, null, 0, 0, null, null, 0, null);
+        }
+        if (maintenance == null) {
+            maintenance = new MaintenanceConfig(null, null, false, null, null);
+        }
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = defaultInstanceId();
+        }
+        
+        // Every other path publishes its RECEIVED rows inline, so a relay would publish them twice
+        if (outbox.relayEnabled() && database != null && producer != null
+                && (database.strategy() != DatabaseStrategy.OUTBOX || producer.exactlyOnce())) {
+            throw new IllegalArgumentException("orchestrator.outbox.relay-enabled requires database.strategy OUTBOX without producer.exactly-once");
+        }
+        
+        // The relay settles every send before its lease can expire, so no other relay resends it
+        if (outbox.relayEnabled() && producer != null && producer.deliveryTimeout() != null
+                && outbox.leaseDuration().compareTo(outbox.publishTimeout().plus(producer.deliveryTimeout())) <= 0) {
+            throw new IllegalArgumentException("orchestrator.outbox.lease-duration must exceed outbox.publish-timeout plus producer.delivery-timeout");
+        }
+        
+        // Event rows do not record their pipeline, so the relay and redrive would republish
+        // pipeline events through the default pipeline's router and topic
+        if (!pipelines.isEmpty() && (outbox.relayEnabled() || redrive.enabled())) {
+            throw new IllegalArgumentException("orchestrator.outbox.relay-enabled and orchestrator.redrive.enabled cannot be used with orchestrator.pipelines");
+        }
+    }
+    
+    /**
+     * Pod hostname when running in Kubernetes, otherwise a random id unique to this JVM
+     */
+    private static String defaultInstanceId() {
+        String hostname = System.getenv("HOSTNAME");
+        return hostname != null && !hostname.isBlank()
+            ? hostname
+            : UUID.randomUUID().toString().substring(0, 8);
+    }
+    
+    /**
+     * Derive the settings of an additional pipeline hosted in this JVM.
+     * Broker connections, producer tuning and resilience settings are inherited; pipelines
+     * publish inline to their own producer topic and do not use routing rules, the outbox relay
+     * or the redrive.
+     */
+    public OrchestratorProperties forPipeline(PipelineConfig pipeline) {
+        String groupId = pipeline.groupId() != null ? pipeline.groupId() : consumer.groupId() + "-" + pipeline.name();
+        int concurrency = pipeline.concurrency() > 0 ? pipeline.concurrency() : consumer.concurrency();
+        DatabaseStrategy strategy = pipeline.strategy() != null ? pipeline.strategy() : database.strategy();
+        
+        return new OrchestratorProperties(
+            consumer.forPipeline(pipeline.topic(), groupId, concurrency),
+            producer.withTopic(pipeline.producerTopic()),
+            database.withStrategy(strategy),
+            resilience,
+            monitoring,
+            new OutboxConfig(false, outbox.batchSize(), outbox.pollInterval(), outbox.leaseDuration(), outbox.publishTimeout()),
+            headers,
+            new RoutingConfig(List.of(), false, routing.clusters()),
+            List.of(),
+            tuning,
+            scaling,
+            stats,
+            payloadCodec,
+            redrive,
+            maintenance,
+            instanceId
+        );
+    }
+    
     public record ConsumerConfig(
         @NotBlank(message = "Consumer topic is mandatory") 
         String topic,
@@ -60,6 +169,12 @@ public record OrchestratorProperties(
                 131072  // sendBufferBytes - 128KB
             );
         }
+        
+        public ConsumerConfig forPipeline(String topic, String groupId, int concurrency) {
+            return new ConsumerConfig(topic, groupId, bootstrapServers, concurrency, maxPollRecords, pollTimeout,
+                enableAutoCommit, heartbeatInterval, sessionTimeout, fetchMinBytes, fetchMaxWait,
+                maxPartitionFetchBytes, receiveBufferBytes, sendBufferBytes);
+        }
     }
     
     public record ProducerConfig(
@@ -78,7 +193,11 @@ public record OrchestratorProperties(
         String compressionType,
         long bufferMemory,
         int maxInFlightRequestsPerConnection,
-        Duration deliveryTimeout
+        Duration deliveryTimeout,
+        boolean exactlyOnce,
+        PartitioningStrategy partitioning,
+        String partitionerClass,
+        int poolSize
     ) {
         // Default constructor with high-performance defaults
         public ProducerConfig(String topic, String bootstrapServers) {
@@ -95,9 +214,19 @@ public record OrchestratorProperties(
                 "snappy", // compressionType - fast compression
                 134217728L, // bufferMemory - 128MB buffer
                 5, // maxInFlightRequestsPerConnection
-                Duration.ofSeconds(5) // deliveryTimeout
+                Duration.ofSeconds(5), // deliveryTimeout
+                false, // exactlyOnce - transactional consume-transform-produce
+                PartitioningStrategy.KEY_HASH, // partitioning - preserve per-key ordering
+                null, // partitionerClass - Kafka default partitioner
+                1 // poolSize - producer instances per target cluster
             );
         }
+        
+        public ProducerConfig withTopic(String topic) {
+            return new ProducerConfig(topic, bootstrapServers, acks, retries, requestTimeout, enableIdempotence,
+                transactionIdPrefix, batchSize, lingerMs, compressionType, bufferMemory,
+                maxInFlightRequestsPerConnection, deliveryTimeout, exactlyOnce, partitioning, partitionerClass, poolSize);
+        }
     }
     
     public record DatabaseConfig(
@@ -105,8 +234,17 @@ public record OrchestratorProperties(
         Duration staleEventThreshold,
         int maxRetries,
         Duration retentionPeriod,
-        int bulkSize
+        int bulkSize,
+        Duration bulkLinger,
+        AdaptiveBatchConfig adaptiveBatch
     ) {
+        public DatabaseConfig {
+            if (retentionPeriod == null) retentionPeriod = Duration.ofDays(14); // used by the retention job
+            if (bulkSize <= 0) bulkSize = 200; // events per group-commit insert
+            if (bulkLinger == null) bulkLinger = Duration.ofMillis(2); // wait for other threads' inserts to join
+            if (adaptiveBatch == null) adaptiveBatch = new AdaptiveBatchConfig(false, 0, 0, null, null, null, 0);
+        }
+        
         // Default constructor
         public DatabaseConfig() {
             this(
@@ -114,9 +252,36 @@ public record OrchestratorProperties(
                 Duration.ofMinutes(30),
                 3,
                 Duration.ofDays(14),
-                200
+                200,
+                Duration.ofMillis(2),
+                null
             );
         }
+        
+        public DatabaseConfig withStrategy(DatabaseStrategy strategy) {
+            return new DatabaseConfig(strategy, staleEventThreshold, maxRetries, retentionPeriod, bulkSize, bulkLinger, adaptiveBatch);
+        }
+    }
+    
+    public record AdaptiveBatchConfig(
+        boolean enabled,
+        int minBatchSize,
+        int maxBatchSize,
+        Duration minLinger,
+        Duration maxLinger,
+        Duration latencyTarget,
+        int window
+    ) {
+        public AdaptiveBatchConfig {
+            if (minBatchSize <= 0) minBatchSize = 10;
+            if (maxBatchSize <= 0) maxBatchSize = 2000;
+            if (maxBatchSize < minBatchSize) maxBatchSize = minBatchSize;
+            if (minLinger == null) minLinger = Duration.ZERO;
+            if (maxLinger == null) maxLinger = Duration.ofMillis(20); // bounds the wait added to each insert
+            if (maxLinger.compareTo(minLinger) < 0) maxLinger = minLinger;
+            if (latencyTarget == null) latencyTarget = Duration.ofMillis(50); // average bulkInsert time before backing off
+            if (window <= 0) window = 20; // batches measured per adjustment
+        }
     }
     
     public record ResilienceConfig(
@@ -151,9 +316,214 @@ public record OrchestratorProperties(
         }
     }
     
+    public record OutboxConfig(
+        boolean relayEnabled,
+        int batchSize,
+        Duration pollInterval,
+        Duration leaseDuration,
+        Duration publishTimeout
+    ) {
+        // Defaults applied in place so the record binds through its canonical constructor
+        public OutboxConfig {
+            if (batchSize <= 0) batchSize = 500; // rows claimed per relay round trip
+            if (pollInterval == null) pollInterval = Duration.ofMillis(50); // idle wait when the outbox is drained
+            if (leaseDuration == null) leaseDuration = Duration.ofSeconds(30); // must exceed publishTimeout plus the producer delivery timeout
+            if (publishTimeout == null) publishTimeout = Duration.ofSeconds(10);
+        }
+    }
+    
+    public record RedriveConfig(
+        boolean enabled,
+        Duration interval,
+        int batchSize,
+        double ratePerSecond,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        double backoffMultiplier,
+        Duration maxRunTime
+    ) {
+        // Attempts per event come from database.max-retries; events that used them all stay FAILED
+        public RedriveConfig {
+            if (interval == null) interval = Duration.ofMinutes(1); // delay between scheduled runs
+            if (batchSize <= 0) batchSize = 200; // failed events read, claimed and republished per page
+            if (ratePerSecond <= 0) ratePerSecond = 100; // republishes per second per instance, leaving room for live traffic
+            if (initialBackoff == null) initialBackoff = Duration.ofSeconds(30); // wait after the first failed retry
+            if (maxBackoff == null) maxBackoff = Duration.ofHours(1);
+            if (backoffMultiplier < 1) backoffMultiplier = 2.0;
+            if (maxRunTime == null) maxRunTime = Duration.ofMinutes(5); // the rest is left to the next run
+        }
+        
+        /**
+         * Wait before the next retry of an event that has failed this many redrives
+         */
+        public Duration backoff(int failedRetries) {
+            double millis = initialBackoff.toMillis() * Math.pow(backoffMultiplier, Math.max(0, failedRetries - 1));
+            return millis >= maxBackoff.toMillis() ? maxBackoff : Duration.ofMillis((long) millis);
+        }
+    }
+    
+    public record MaintenanceConfig(
+        Boolean leaderElection,
+        Double jitter,
+        boolean retentionEnabled,
+        Duration retentionInterval,
+        Duration retentionBudget
+    ) {
+        public MaintenanceConfig {
+            // One instance per interval runs the redrive and retention jobs, elected by a lease in the event store
+            if (leaderElection == null) leaderElection = true;
+            if (jitter == null) jitter = 0.1; // each wait is the interval +/- this fraction
+            if (jitter < 0 || jitter >= 1) {
+                throw new IllegalArgumentException("orchestrator.maintenance.jitter must be at least 0 and below 1: " + jitter);
+            }
+            if (retentionInterval == null) retentionInterval = Duration.ofHours(1); // deletes events past database.retention-period
+            if (retentionBudget == null) retentionBudget = Duration.ofMinutes(10);
+        }
+    }
+    
+    public record HeadersConfig(
+        List<String> forward,
+        Boolean enrich
+    ) {
+        public HeadersConfig {
+            // Forward the load-test timing headers by default so latency can be traced across hops
+            if (forward == null) forward = List.of("message_id", "source", "send_timestamp_ns");
+            if (enrich == null) enrich = true; // add orchestrator_* timing and instance headers
+        }
+    }
+    
+    public record RoutingConfig(
+        @Valid List<RouteRule> rules,
+        boolean dropUnmatched,
+        Map<String, String> clusters
+    ) {
+        public RoutingConfig {
+            if (rules == null) rules = List.of(); // no rules: everything goes to the producer topic
+            if (clusters == null) clusters = Map.of(); // cluster name -> bootstrap servers
+        }
+    }
+    
+    public record RouteRule(
+        String header,   // match on a source header, or
+        String jsonPath, // match on a field of the transformed payload ($.a.b)
+        String value,    // expected value; null only checks presence
+        @NotBlank(message = "Route topic is mandatory")
+        String topic,
+        String cluster   // null targets the default producer cluster
+    ) {}
+    
+    public record TuningConfig(
+        boolean enabled,
+        Duration interval,
+        int throughputBatchSize,
+        Duration throughputLinger,
+        Duration latencyBudget,
+        long lagHighWatermark,
+        long lagLowWatermark,
+        double queueTimeHighMs,
+        double requestRateHigh,
+        int stableIntervals
+    ) {
+        public TuningConfig {
+            if (interval == null) interval = Duration.ofSeconds(30); // how often producer metrics and lag are sampled
+            if (throughputBatchSize <= 0) throughputBatchSize = 262144; // 256KB batches under sustained load
+            if (throughputLinger == null) throughputLinger = Duration.ofMillis(20);
+            if (latencyBudget == null) latencyBudget = Duration.ofMillis(50); // linger is never raised above this
+            if (lagHighWatermark <= 0) lagHighWatermark = 10000; // records behind before switching to throughput
+            if (lagLowWatermark <= 0) lagLowWatermark = 1000; // records behind before switching back
+            if (queueTimeHighMs <= 0) queueTimeHighMs = 10.0; // accumulator backlog in latency mode
+            if (requestRateHigh <= 0) requestRateHigh = 1000.0; // produce requests per second per producer
+            if (stableIntervals <= 0) stableIntervals = 3; // consecutive samples before a switch
+        }
+    }
+    
+    public record ScalingConfig(
+        boolean enabled,
+        Duration refreshInterval,
+        Duration targetLagTime,
+        double recordsPerSecondPerReplica,
+        int minReplicas,
+        int maxReplicas,
+        Duration adminTimeout
+    ) {
+        public ScalingConfig {
+            if (refreshInterval == null) refreshInterval = Duration.ofSeconds(15); // group offsets are read this often
+            if (targetLagTime == null) targetLagTime = Duration.ofSeconds(30); // backlog should drain within this time
+            // recordsPerSecondPerReplica <= 0: estimate replica capacity from the observed commit rate
+            if (minReplicas <= 0) minReplicas = 1;
+            // maxReplicas <= 0: capped by the partition count only
+            if (adminTimeout == null) adminTimeout = Duration.ofSeconds(5);
+        }
+    }
+    
+    public record StatsConfig(
+        Duration refreshInterval,
+        Boolean inMemoryCounters
+    ) {
+        public StatsConfig {
+            // Event counts scan the store, so they are refreshed in the background and served cached
+            if (refreshInterval == null) refreshInterval = Duration.ofSeconds(30);
+            // Count status transitions in memory, reconciled against the store on every refresh
+            if (inMemoryCounters == null) inMemoryCounters = false;
+        }
+    }
+    
+    public record PayloadCodecConfig(
+        boolean enabled,
+        PayloadStorageMode mode,
+        CompressionAlgorithm algorithm,
+        int level,
+        int minSize,
+        Map<String, String> dictionaries,
+        Duration fetchTimeout,
+        int fetchCacheSize
+    ) {
+        public PayloadCodecConfig {
+            if (mode == null) mode = PayloadStorageMode.COMPRESSED;
+            if (algorithm == null) algorithm = CompressionAlgorithm.ZSTD;
+            if (level <= 0) level = 3; // zstd level; LZ4 always uses its fast compressor
+            if (minSize <= 0) minSize = 64; // smaller payloads are stored uncompressed
+            if (dictionaries == null) dictionaries = Map.of(); // source topic -> zstd dictionary location
+            if (fetchTimeout == null) fetchTimeout = Duration.ofSeconds(5); // REFERENCE: per source record read
+            if (fetchCacheSize <= 0) fetchCacheSize = 500; // REFERENCE: records read ahead on each seek
+        }
+    }
+    
+    public record PipelineConfig(
+        @NotBlank(message = "Pipeline name is mandatory")
+        String name,
+        
+        @NotBlank(message = "Pipeline topic is mandatory")
+        String topic,
+        
+        @NotBlank(message = "Pipeline producer topic is mandatory")
+        String producerTopic,
+        
+        String groupId,      // defaults to <consumer group>-<name>
+        int concurrency,     // defaults to the consumer concurrency
+        String transformer,  // MessageTransformer bean name, the default transformer when null
+        DatabaseStrategy strategy, // defaults to the database strategy
+        String store         // EventStore bean name, the default store when null
+    ) {}
+    
     public enum DatabaseStrategy {
         OUTBOX,     // Bulk consume → bulk insert → process → update
         RELIABLE,   // Insert before publish → update after
         LIGHTWEIGHT // Only log failures, fastest option
     }
+    
+    public enum PayloadStorageMode {
+        COMPRESSED, // Payload stored encoded with the compression algorithm
+        REFERENCE   // Only source coordinates, size and hash stored; payload read back from Kafka
+    }
+    
+    public enum CompressionAlgorithm {
+        LZ4, // Fastest, moderate ratio
+        ZSTD // Better ratio, especially with a trained dictionary
+    }
+    
+    public enum PartitioningStrategy {
+        KEY_HASH,        // Partition by record key (or the configured partitioner class)
+        SOURCE_PARTITION // Mirror the source partition number for co-partitioned outputs
+    }
 }
\ No newline at end of file
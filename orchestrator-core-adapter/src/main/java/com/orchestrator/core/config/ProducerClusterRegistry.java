@@ -0,0 +1,106 @@
+package com.orchestrator.core.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the producer pool of the default cluster and one pool per named target cluster,
+ * so routed messages can be published to clusters other than the default one.
+ * Clusters with the same effective producer configuration share one pool.
+ */
+public class ProducerClusterRegistry implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProducerClusterRegistry.class);
+    
+    private final ProducerPool defaultPool;
+    private final Map<String, ProducerPool> clusterPools;
+    private final KafkaTemplate<String, String> beanTemplate;
+    
+    public ProducerClusterRegistry(ProducerPool defaultPool, Map<String, ProducerPool> clusterPools) {
+        this.defaultPool = defaultPool;
+        this.clusterPools = Map.copyOf(clusterPools);
+        this.beanTemplate = defaultPool.primary();
+    }
+    
+    /**
+     * First producer of the default cluster; in exactly-once mode the one backed by the
+     * producer factory bean, which takes part in listener transactions
+     */
+    public KafkaTemplate<String, String> defaultTemplate() {
+        return defaultPool.primary();
+    }
+    
+    /**
+     * Whether the template is backed by the producer factory bean, which the container closes
+     */
+    public boolean isBeanTemplate(KafkaTemplate<String, String> template) {
+        return template == beanTemplate;
+    }
+    
+    /**
+     * Resolve the producer for a cluster name
+     * @param cluster Cluster name, or null for the default producer
+     * @return Template publishing to that cluster
+     */
+    public KafkaTemplate<String, String> templateFor(String cluster) {
+        return poolFor(cluster).primary();
+    }
+    
+    /**
+     * Resolve the pooled producer for a record
+     * @param cluster Cluster name, or null for the default cluster
+     * @param key Record key; equal keys always map to the same producer
+     * @return Template publishing to that cluster
+     */
+    public KafkaTemplate<String, String> templateFor(String cluster, String key) {
+        return poolFor(cluster).select(key);
+    }
+    
+    /**
+     * Distinct producer pools, the default pool first
+     */
+    public Set<ProducerPool> pools() {
+        Set<ProducerPool> pools = new LinkedHashSet<>();
+        pools.add(defaultPool);
+        pools.addAll(clusterPools.values());
+        return pools;
+    }
+    
+    private ProducerPool poolFor(String cluster) {
+        if (cluster == null) {
+            return defaultPool;
+        }
+        
+        ProducerPool pool = clusterPools.get(cluster);
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown producer cluster: " + cluster);
+        }
+        
+        return pool;
+    }
+    
+    /**
+     * Close the pooled producer factories; the default factory bean is closed by the container
+     */
+    @Override
+    public void destroy() {
+        for (ProducerPool pool : pools()) {
+            for (KafkaTemplate<String, String> template : pool.templates()) {
+                if (isBeanTemplate(template) || !(template.getProducerFactory() instanceof DisposableBean factory)) {
+                    continue;
+                }
+                try {
+                    factory.destroy();
+                } catch (Exception e) {
+                    logger.warn("Failed to close pooled producer factory: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
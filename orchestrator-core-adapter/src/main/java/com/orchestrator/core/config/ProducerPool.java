@@ -0,0 +1,67 @@
+package com.orchestrator.core.config;
+
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed number of producers for one effective producer configuration.
+ * Spreading sends over several producers gives each its own sender thread and
+ * record accumulator; keyed sends always pick the same slot so per-key order holds.
+ * A slot's producer can be replaced while other threads send through the pool.
+ */
+public class ProducerPool {
+    
+    private volatile List<KafkaTemplate<String, String>> templates;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ProducerPool(List<KafkaTemplate<String, String>> templates) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("Producer pool needs at least one producer");
+        }
+        this.templates = List.copyOf(templates);
+    }
+    
+    /**
+     * Select the producer for a record
+     * @param key Record key, or null to spread round-robin
+     * @return Producer to send the record with
+     */
+    public KafkaTemplate<String, String> select(String key) {
+        List<KafkaTemplate<String, String>> templates = this.templates;
+        int size = templates.size();
+        if (size == 1) {
+            return templates.get(0);
+        }
+        
+        int index = key != null
+            ? Math.floorMod(key.hashCode(), size)
+            : Math.floorMod(next.getAndIncrement(), size);
+        return templates.get(index);
+    }
+    
+    public KafkaTemplate<String, String> primary() {
+        return templates.get(0);
+    }
+    
+    public List<KafkaTemplate<String, String>> templates() {
+        return templates;
+    }
+    
+    /**
+     * Swap the producer of one slot; sends selecting the slot afterwards use the replacement
+     * @return The replaced producer, which may still have sends in flight
+     */
+    public synchronized KafkaTemplate<String, String> replace(int index, KafkaTemplate<String, String> replacement) {
+        List<KafkaTemplate<String, String>> updated = new ArrayList<>(templates);
+        KafkaTemplate<String, String> replaced = updated.set(index, replacement);
+        templates = List.copyOf(updated);
+        return replaced;
+    }
+    
+    public int size() {
+        return templates.size();
+    }
+}
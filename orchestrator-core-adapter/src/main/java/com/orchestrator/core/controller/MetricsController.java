@@ -1,7 +1,9 @@
 package com.orchestrator.core.controller;
 
+import com.orchestrator.core.metrics.EventStatsRefresher;
 import com.orchestrator.core.metrics.LatencyTracker;
-import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.metrics.ScalingAdvisor;
+import com.orchestrator.core.store.EventStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,11 +18,13 @@ import java.util.Map;
 public class MetricsController {
     
     private final LatencyTracker latencyTracker;
-    private final EventStore eventStore;
+    private final EventStatsRefresher eventStatsRefresher;
+    private final ScalingAdvisor scalingAdvisor;
     
-    public MetricsController(LatencyTracker latencyTracker, EventStore eventStore) {
+    public MetricsController(LatencyTracker latencyTracker, EventStatsRefresher eventStatsRefresher, ScalingAdvisor scalingAdvisor) {
         this.latencyTracker = latencyTracker;
-        this.eventStore = eventStore;
+        this.eventStatsRefresher = eventStatsRefresher;
+        this.scalingAdvisor = scalingAdvisor;
     }
     
     @GetMapping("/latency")
@@ -42,29 +46,52 @@ public class MetricsController {
         );
     }
     
+    /**
+     * Event store counts from the last background refresh; statsAgeSeconds reports their staleness
+     */
     @GetMapping("/database")
     public Map<String, Object> getDatabaseMetrics() {
+        EventStatsRefresher.EventStats stats = eventStatsRefresher.getStats();
+        
         return Map.of(
-            "pendingEvents", eventStore.countPendingEvents(),
-            "failedEvents", eventStore.countFailedEvents(),
-            "processedEvents", eventStore.countProcessedEvents(),
-            "slowEvents", eventStore.countSlowEvents(),
+            "pendingEvents", stats.count(EventStatus.RECEIVED),
+            "failedEvents", stats.count(EventStatus.FAILED),
+            "processedEvents", stats.count(EventStatus.SUCCESS),
+            "slowEvents", stats.slowEvents(),
+            "statsAgeSeconds", stats.ageSeconds(),
             "timestamp", System.currentTimeMillis()
         );
     }
     
+    /**
+     * Backlog-based scaling signals for an external-metrics autoscaler
+     */
+    @GetMapping("/scaling")
+    public Object getScalingMetrics() {
+        if (scalingAdvisor == null) {
+            return Map.of(
+                "enabled", false,
+                "timestamp", System.currentTimeMillis()
+            );
+        }
+        
+        return scalingAdvisor.getSnapshot();
+    }
+    
     @GetMapping("/summary")
     public Map<String, Object> getSummary() {
         long totalMessages = latencyTracker.getTotalMessageCount();
         long slowMessages = latencyTracker.getSlowMessageCount();
+        EventStatsRefresher.EventStats stats = eventStatsRefresher.getStats();
         
         return Map.of(
             "status", "running",
             "totalProcessed", totalMessages,
             "slowMessages", slowMessages,
             "slowPercentage", String.format("%.2f%%", latencyTracker.getSlowMessagePercentage()),
-            "databasePending", eventStore.countPendingEvents(),
-            "databaseFailed", eventStore.countFailedEvents(),
+            "databasePending", stats.count(EventStatus.RECEIVED),
+            "databaseFailed", stats.count(EventStatus.FAILED),
+            "databaseStatsAgeSeconds", stats.ageSeconds(),
             "targetTPS", 1000,
             "latencyThreshold", "1 second"
         );
@@ -0,0 +1,47 @@
+package com.orchestrator.core.controller;
+
+import com.orchestrator.core.service.RedriveService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST controller triggering the failed event redrive on demand
+ */
+@RestController
+@RequestMapping("/api/redrive")
+public class RedriveController {
+    
+    private final RedriveService redriveService;
+    
+    public RedriveController(RedriveService redriveService) {
+        this.redriveService = redriveService;
+    }
+    
+    /**
+     * Starts a redrive in the background; 409 when one is already running on this instance
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> triggerRedrive() {
+        boolean started = redriveService.trigger();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(Map.of(
+            "started", started,
+            "timestamp", System.currentTimeMillis()
+        ));
+    }
+    
+    @GetMapping
+    public Map<String, Object> getRedriveStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", redriveService.isRunning());
+        status.put("lastRun", redriveService.getLastResult());
+        status.put("timestamp", System.currentTimeMillis());
+        return status;
+    }
+}
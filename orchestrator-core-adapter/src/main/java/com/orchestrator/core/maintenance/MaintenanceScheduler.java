@@ -0,0 +1,153 @@
+package com.orchestrator.core.maintenance;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.store.EventStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Scheduler of the event store maintenance jobs.
+ * With @Scheduled every replica sweeps the store at the same moments. Here each job waits its
+ * interval with random jitter after every run, so replicas drift apart, and a leader-only job
+ * first takes a lease in the event store, so one replica runs it per interval while the others
+ * skip. The lease outlives the leader's longest wait plus its run time budget, so the leader keeps
+ * renewing it and another replica takes over only once it stops. Each run is given a deadline
+ * from its budget and stops by it, leaving the rest to the next run.
+ */
+public class MaintenanceScheduler implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceScheduler.class);
+    private static final String LEASE_PREFIX = "maintenance:";
+    
+    private final EventStore eventStore;
+    private final OrchestratorProperties.MaintenanceConfig config;
+    private final String owner;
+    private final MeterRegistry meterRegistry;
+    private final List<Job> jobs = new ArrayList<>();
+    
+    private volatile boolean running;
+    private ScheduledExecutorService executor;
+    
+    public MaintenanceScheduler(EventStore eventStore, OrchestratorProperties properties, LatencyTracker latencyTracker) {
+        this.eventStore = eventStore;
+        this.config = properties.maintenance();
+        this.owner = properties.instanceId();
+        this.meterRegistry = latencyTracker.getMeterRegistry();
+    }
+    
+    /**
+     * Register a job before the scheduler starts
+     * @param name Job name, also naming its lease
+     * @param interval Wait between runs, before jitter
+     * @param budget Time a run may take
+     * @param leaderOnly Run on one instance per interval instead of on every instance
+     * @param task Runs the job; receives the deadline of the run
+     */
+    public void register(String name, Duration interval, Duration budget, boolean leaderOnly, Consumer<Instant> task) {
+        jobs.add(new Job(name, interval, budget, leaderOnly && config.leaderElection(), task,
+            Timer.builder("orchestrator.maintenance.run")
+                .description("Maintenance job run time")
+                .tag("job", name)
+                .register(meterRegistry),
+            Counter.builder("orchestrator.maintenance.skipped")
+                .description("Maintenance job runs skipped because another instance holds the lease")
+                .tag("job", name)
+                .register(meterRegistry)));
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        if (jobs.isEmpty()) {
+            return;
+        }
+        
+        // One thread per job, so a long redrive never delays retention
+        executor = Executors.newScheduledThreadPool(jobs.size(), runnable -> {
+            Thread thread = new Thread(runnable, "orchestrator-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Job job : jobs) {
+            // Replicas started together spread their first runs over one interval
+            executor.schedule(() -> run(job), (long) (job.interval().toMillis() * ThreadLocalRandom.current().nextDouble()), TimeUnit.MILLISECONDS);
+        }
+        logger.info("Maintenance scheduler started: owner={}, jobs={}, leaderElection={}, jitter={}",
+                   owner, jobs.stream().map(Job::name).toList(), config.leaderElection(), config.jitter());
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void run(Job job) {
+        try {
+            if (job.leaderOnly() && !eventStore.tryAcquireLease(LEASE_PREFIX + job.name(), owner, leaseDuration(job))) {
+                job.skipped().increment();
+                logger.debug("Maintenance job {} skipped: lease held by another instance", job.name());
+                return;
+            }
+            
+            Instant deadline = Instant.now().plus(job.budget());
+            long start = System.nanoTime();
+            job.task().accept(deadline);
+            job.runTime().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            
+            if (Instant.now().isAfter(deadline)) {
+                logger.warn("Maintenance job {} overran its {} budget", job.name(), job.budget());
+            }
+        } catch (Exception e) {
+            logger.error("MAINTENANCE JOB {} FAILED: {}", job.name(), e.getMessage(), e);
+        } finally {
+            if (running) {
+                executor.schedule(() -> run(job), jittered(job.interval()), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    private long jittered(Duration interval) {
+        double factor = 1 + config.jitter() * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return (long) (interval.toMillis() * factor);
+    }
+    
+    /**
+     * Longest wait between two runs of the leader plus the run itself
+     */
+    private Duration leaseDuration(Job job) {
+        return Duration.ofMillis((long) (job.interval().toMillis() * (1 + config.jitter()))).plus(job.budget());
+    }
+    
+    private record Job(
+        String name,
+        Duration interval,
+        Duration budget,
+        boolean leaderOnly,
+        Consumer<Instant> task,
+        Timer runTime,
+        Counter skipped
+    ) {}
+}
@@ -0,0 +1,81 @@
+package com.orchestrator.core.metrics;
+
+import com.orchestrator.core.pipeline.PipelineRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads consumer lag from the fetch metrics of the running listener containers.
+ * The consumers already track per-partition lag on every fetch, so no admin
+ * round trips to the brokers are needed.
+ */
+public class ConsumerLagMonitor {
+    
+    private static final String FETCH_METRICS_GROUP = "consumer-fetch-manager-metrics";
+    private static final String RECORDS_LAG = "records-lag";
+    
+    private final KafkaListenerEndpointRegistry endpointRegistry;
+    private final PipelineRegistry pipelineRegistry;
+    
+    public ConsumerLagMonitor(KafkaListenerEndpointRegistry endpointRegistry, PipelineRegistry pipelineRegistry) {
+        this.endpointRegistry = endpointRegistry;
+        this.pipelineRegistry = pipelineRegistry;
+    }
+    
+    /**
+     * Current lag of every partition assigned to this instance
+     */
+    public Map<TopicPartition, Long> getPartitionLags() {
+        Map<TopicPartition, Long> lags = new HashMap<>();
+        for (MessageListenerContainer container : containers()) {
+            for (Map<MetricName, ? extends Metric> clientMetrics : container.metrics().values()) {
+                collectLags(clientMetrics, lags);
+            }
+        }
+        return lags;
+    }
+    
+    public long getTotalLag() {
+        return getPartitionLags().values().stream().mapToLong(Long::longValue).sum();
+    }
+    
+    public long getMaxLag() {
+        return getPartitionLags().values().stream().mapToLong(Long::longValue).max().orElse(0L);
+    }
+    
+    private List<MessageListenerContainer> containers() {
+        List<MessageListenerContainer> containers = new ArrayList<>(endpointRegistry.getAllListenerContainers());
+        for (String pipelineName : pipelineRegistry.getPipelineNames()) {
+            containers.add(pipelineRegistry.getContainer(pipelineName));
+        }
+        return containers;
+    }
+    
+    private static void collectLags(Map<MetricName, ? extends Metric> clientMetrics, Map<TopicPartition, Long> lags) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : clientMetrics.entrySet()) {
+            MetricName name = entry.getKey();
+            if (!RECORDS_LAG.equals(name.name()) || !FETCH_METRICS_GROUP.equals(name.group())) {
+                continue;
+            }
+            
+            String topic = name.tags().get("topic");
+            String partition = name.tags().get("partition");
+            if (topic == null || partition == null) {
+                continue;
+            }
+            
+            // Lag is NaN until the first fetch of the partition completes
+            if (entry.getValue().metricValue() instanceof Number value && !Double.isNaN(value.doubleValue())) {
+                lags.merge(new TopicPartition(topic, Integer.parseInt(partition)), value.longValue(), Math::max);
+            }
+        }
+    }
+}
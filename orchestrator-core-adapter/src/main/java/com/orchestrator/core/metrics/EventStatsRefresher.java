@@ -0,0 +1,86 @@
+package com.orchestrator.core.metrics;
+
+import com.orchestrator.core.store.EventStatus;
+import com.orchestrator.core.store.EventStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Background refresher for event store statistics.
+ * Counting events scans the store, so the counts are taken in one pass on a schedule
+ * and every gauge scrape or metrics request reads the cached snapshot, together with its age.
+ */
+public class EventStatsRefresher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventStatsRefresher.class);
+    
+    private final EventStore eventStore;
+    
+    private volatile EventStats stats = new EventStats(Map.of(), 0L, null);
+    
+    public EventStatsRefresher(EventStore eventStore, LatencyTracker latencyTracker) {
+        this.eventStore = eventStore;
+        
+        MeterRegistry meterRegistry = latencyTracker.getMeterRegistry();
+        
+        for (EventStatus status : EventStatus.values()) {
+            Gauge.builder("orchestrator.events", this, refresher -> refresher.stats.count(status))
+                .description("Number of stored events per status, as of the last stats refresh")
+                .tag("status", status.name())
+                .register(meterRegistry);
+        }
+        
+        Gauge.builder("orchestrator.events.slow", this, refresher -> refresher.stats.slowEvents())
+            .description("Number of stored events with end-to-end latency above one second")
+            .register(meterRegistry);
+        
+        Gauge.builder("orchestrator.events.stats.age", this, refresher -> refresher.stats.ageSeconds())
+            .description("Seconds since the event counts were last refreshed")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+    
+    public EventStats getStats() {
+        return stats;
+    }
+    
+    @Scheduled(fixedDelayString = "${orchestrator.stats.refresh-interval:PT30S}")
+    public void refresh() {
+        try {
+            Instant start = Instant.now();
+            Map<EventStatus, Long> counts = eventStore.countEventsByStatus();
+            long slowEvents = eventStore.countSlowEvents();
+            
+            stats = new EventStats(Map.copyOf(counts), slowEvents, Instant.now());
+            
+            logger.debug("Event stats refreshed in {}ms: {}", Duration.between(start, Instant.now()).toMillis(), counts);
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; its age shows how stale it is
+            logger.warn("Failed to refresh event stats: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Snapshot of the event store counts
+     * @param countsByStatus Event count per status
+     * @param slowEvents Events with end-to-end latency above one second
+     * @param refreshedAt When the counts were taken, null before the first refresh
+     */
+    public record EventStats(Map<EventStatus, Long> countsByStatus, long slowEvents, Instant refreshedAt) {
+        
+        public long count(EventStatus status) {
+            return countsByStatus.getOrDefault(status, 0L);
+        }
+        
+        public double ageSeconds() {
+            return refreshedAt != null ? Duration.between(refreshedAt, Instant.now()).toMillis() / 1000.0 : Double.NaN;
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class LatencyTracker {
     
     private static final Logger logger = LoggerFactory.getLogger(LatencyTracker.class);
     
+    private final MeterRegistry meterRegistry;
     private final Counter messagesExceedingOneSecond;
     private final Counter totalMessagesProcessed;
     private final Timer endToEndLatencyTimer;
@@ -31,6 +32,8 @@ public class LatencyTracker {
     private final AtomicLong totalMessageCount = new AtomicLong(0);
     
     public LatencyTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        
         this.messagesExceedingOneSecond = Counter.builder("orchestrator.messages.slow")
                 .description("Count of messages that took more than 1 second end-to-end")
                 .register(meterRegistry);
@@ -143,6 +146,14 @@ public class LatencyTracker {
         return (double) getSlowMessageCount() / total * 100.0;
     }
     
+    /**
+     * Registry the orchestrator meters are published to, so client metrics
+     * (e.g. per-producer queue time and batch size) land alongside them
+     */
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+    
     /**
      * Log periodic statistics for monitoring
      */
@@ -0,0 +1,228 @@
+package com.orchestrator.core.metrics;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Computes backlog-based autoscaling signals for every consumer group of this deployment.
+ * Group-wide committed and end offsets are read through the admin client, so any replica
+ * reports the same numbers: per-partition lag, the time needed to drain the backlog at the
+ * observed processing rate, and a desired replica count capped by the partition count.
+ */
+public class ScalingAdvisor implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScalingAdvisor.class);
+    
+    private final OrchestratorProperties properties;
+    private final OrchestratorProperties.ScalingConfig config;
+    private final Admin admin;
+    private final MultiGauge partitionLagGauge;
+    private final Map<String, OffsetSample> previousSamples = new ConcurrentHashMap<>();
+    
+    private volatile ScalingSnapshot snapshot = new ScalingSnapshot(List.of(), 0, 0.0, 0.0, 0, null);
+    
+    public ScalingAdvisor(OrchestratorProperties properties, LatencyTracker latencyTracker) {
+        this.properties = properties;
+        this.config = properties.scaling();
+        this.admin = Admin.create(Map.of(
+            AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, properties.consumer().bootstrapServers(),
+            AdminClientConfig.CLIENT_ID_CONFIG, "orchestrator-scaling-" + properties.instanceId()
+        ));
+        
+        MeterRegistry meterRegistry = latencyTracker.getMeterRegistry();
+        
+        this.partitionLagGauge = MultiGauge.builder("orchestrator.consumer.lag")
+            .description("Consumer group lag per partition")
+            .register(meterRegistry);
+        
+        Gauge.builder("orchestrator.consumer.lag.total", this, advisor -> advisor.snapshot.totalLag())
+            .description("Consumer group lag summed over all pipelines")
+            .register(meterRegistry);
+        Gauge.builder("orchestrator.consumer.lag.seconds", this, advisor -> advisor.snapshot.lagSeconds())
+            .description("Estimated time to drain the largest backlog at the observed processing rate")
+            .register(meterRegistry);
+        Gauge.builder("orchestrator.consumer.processing.rate", this, advisor -> advisor.snapshot.processingRate())
+            .description("Records committed per second across all replicas")
+            .register(meterRegistry);
+        Gauge.builder("orchestrator.scaling.desired_replicas", this, advisor -> advisor.snapshot.desiredReplicas())
+            .description("Replica count needed to drain the backlog within the target lag time")
+            .register(meterRegistry);
+    }
+    
+    public ScalingSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    @Scheduled(fixedDelayString = "${orchestrator.scaling.refresh-interval:PT15S}")
+    public void refresh() {
+        try {
+            List<GroupLag> groups = new ArrayList<>();
+            groups.add(computeGroupLag(properties.consumer()));
+            for (OrchestratorProperties.PipelineConfig pipeline : properties.pipelines()) {
+                groups.add(computeGroupLag(properties.forPipeline(pipeline).consumer()));
+            }
+            
+            snapshot = ScalingSnapshot.of(groups);
+            partitionLagGauge.register(groups.stream()
+                .flatMap(group -> group.partitionLags().entrySet().stream()
+                    .map(entry -> MultiGauge.Row.of(
+                        Tags.of("group", group.groupId(), "topic", group.topic(), "partition", String.valueOf(entry.getKey())),
+                        entry.getValue())))
+                .collect(Collectors.toList()), true);
+            
+            logger.debug("Scaling signals refreshed: totalLag={}, lagSeconds={}, desiredReplicas={}",
+                        snapshot.totalLag(), snapshot.lagSeconds(), snapshot.desiredReplicas());
+        } catch (Exception e) {
+            logger.warn("Failed to refresh scaling signals: {}", e.getMessage());
+        }
+    }
+    
+    private GroupLag computeGroupLag(OrchestratorProperties.ConsumerConfig consumer) throws Exception {
+        String groupId = consumer.groupId();
+        String topic = consumer.topic();
+        long timeoutMs = config.adminTimeout().toMillis();
+        
+        TopicDescription description = admin.describeTopics(List.of(topic))
+            .allTopicNames().get(timeoutMs, TimeUnit.MILLISECONDS).get(topic);
+        Map<TopicPartition, OffsetSpec> latest = description.partitions().stream()
+            .collect(Collectors.toMap(partition -> new TopicPartition(topic, partition.partition()), partition -> OffsetSpec.latest()));
+        
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(latest)
+            .all().get(timeoutMs, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+            .partitionsToOffsetAndMetadata().get(timeoutMs, TimeUnit.MILLISECONDS);
+        ConsumerGroupDescription group = admin.describeConsumerGroups(List.of(groupId))
+            .describedGroups().get(groupId).get(timeoutMs, TimeUnit.MILLISECONDS);
+        
+        Map<Integer, Long> partitionLags = new TreeMap<>();
+        long totalLag = 0;
+        long committedSum = 0;
+        long endSum = 0;
+        
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+            long end = entry.getValue().offset();
+            OffsetAndMetadata position = committed.get(entry.getKey());
+            long consumed = position != null ? position.offset() : 0L;
+            long lag = Math.max(0L, end - consumed);
+            
+            partitionLags.put(entry.getKey().partition(), lag);
+            totalLag += lag;
+            committedSum += consumed;
+            endSum += end;
+        }
+        
+        // One pod hosts several consumer threads, all from the same client host
+        int replicas = (int) group.members().stream().map(MemberDescription::host).distinct().count();
+        
+        OffsetSample current = new OffsetSample(committedSum, endSum, System.nanoTime());
+        OffsetSample previous = previousSamples.put(groupId, current);
+        double processingRate = previous != null ? previous.ratePerSecond(current, OffsetSample::committed) : 0.0;
+        double incomingRate = previous != null ? previous.ratePerSecond(current, OffsetSample::end) : 0.0;
+        
+        double lagSeconds = totalLag > 0 ? totalLag / Math.max(processingRate, 1.0) : 0.0;
+        int desiredReplicas = desiredReplicas(config, description.partitions().size(), replicas, totalLag, processingRate, incomingRate);
+        
+        return new GroupLag(groupId, topic, description.partitions().size(), replicas, partitionLags,
+            totalLag, processingRate, incomingRate, lagSeconds, desiredReplicas);
+    }
+    
+    /**
+     * Replicas needed to keep up with the incoming rate and drain the current backlog
+     * within the target lag time, bounded by the configured minimum and the partition count
+     */
+    static int desiredReplicas(OrchestratorProperties.ScalingConfig config, int partitions, int replicas, long totalLag, double processingRate, double incomingRate) {
+        int maxReplicas = config.maxReplicas() > 0 ? Math.min(config.maxReplicas(), partitions) : partitions;
+        
+        double capacityPerReplica = config.recordsPerSecondPerReplica() > 0
+            ? config.recordsPerSecondPerReplica()
+            : (replicas > 0 ? processingRate / replicas : 0.0);
+        
+        int desired;
+        if (capacityPerReplica <= 0) {
+            // No throughput observed yet: hold the current size while there is a backlog
+            desired = totalLag > 0 ? Math.max(replicas, config.minReplicas()) : config.minReplicas();
+        } else {
+            double requiredRate = incomingRate + totalLag / (double) Math.max(1L, config.targetLagTime().toSeconds());
+            desired = (int) Math.ceil(requiredRate / capacityPerReplica);
+        }
+        
+        return Math.max(config.minReplicas(), Math.min(desired, Math.max(maxReplicas, config.minReplicas())));
+    }
+    
+    @Override
+    public void destroy() {
+        admin.close(Duration.ofSeconds(5));
+    }
+    
+    private record OffsetSample(long committed, long end, long nanoTime) {
+        
+        double ratePerSecond(OffsetSample later, Function<OffsetSample, Long> offset) {
+            double seconds = (later.nanoTime() - nanoTime) / 1_000_000_000.0;
+            return seconds > 0 ? Math.max(0L, offset.apply(later) - offset.apply(this)) / seconds : 0.0;
+        }
+    }
+    
+    public record GroupLag(
+        String groupId,
+        String topic,
+        int partitions,
+        int replicas,
+        Map<Integer, Long> partitionLags,
+        long totalLag,
+        double processingRate,
+        double incomingRate,
+        double lagSeconds,
+        int desiredReplicas
+    ) {}
+    
+    public record ScalingSnapshot(
+        List<GroupLag> groups,
+        long totalLag,
+        double lagSeconds,
+        double processingRate,
+        int desiredReplicas,
+        Instant computedAt
+    ) {
+        
+        /**
+         * All pipelines run in the same deployment, so the most demanding one decides
+         */
+        static ScalingSnapshot of(List<GroupLag> groups) {
+            return new ScalingSnapshot(
+                List.copyOf(groups),
+                groups.stream().mapToLong(GroupLag::totalLag).sum(),
+                groups.stream().mapToDouble(GroupLag::lagSeconds).max().orElse(0.0),
+                groups.stream().mapToDouble(GroupLag::processingRate).sum(),
+                groups.stream().mapToInt(GroupLag::desiredReplicas).max().orElse(0),
+                Instant.now()
+            );
+        }
+    }
+}
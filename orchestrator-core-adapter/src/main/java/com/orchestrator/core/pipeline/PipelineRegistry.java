@@ -0,0 +1,137 @@
+package com.orchestrator.core.pipeline;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.config.ProducerClusterRegistry;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.routing.RuleBasedMessageRouter;
+import com.orchestrator.core.service.EventConsumerService;
+import com.orchestrator.core.service.EventPublisherService;
+import com.orchestrator.core.service.TransactionalEventConsumerService;
+import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.transformer.MessageTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hosts the additional pipelines declared under orchestrator.pipelines in this JVM.
+ * Each pipeline gets its own programmatically created listener container, transformer,
+ * producer topic, strategy and store, while all pipelines share the producer instances,
+ * consumer factory settings and latency metrics of the default pipeline.
+ */
+public class PipelineRegistry implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PipelineRegistry.class);
+    
+    private final OrchestratorProperties properties;
+    private final ListableBeanFactory beanFactory;
+    private final ProducerClusterRegistry producerClusterRegistry;
+    private final LatencyTracker latencyTracker;
+    private final Map<String, ConcurrentMessageListenerContainer<String, String>> containers = new LinkedHashMap<>();
+    private final List<EventConsumerService> consumerServices = new ArrayList<>();
+    
+    private volatile boolean running;
+    
+    public PipelineRegistry(
+            OrchestratorProperties properties,
+            ListableBeanFactory beanFactory,
+            ProducerClusterRegistry producerClusterRegistry,
+            LatencyTracker latencyTracker) {
+        this.properties = properties;
+        this.beanFactory = beanFactory;
+        this.producerClusterRegistry = producerClusterRegistry;
+        this.latencyTracker = latencyTracker;
+    }
+    
+    @Override
+    public synchronized void start() {
+        for (OrchestratorProperties.PipelineConfig pipeline : properties.pipelines()) {
+            if (containers.containsKey(pipeline.name()) || EventConsumerService.DEFAULT_PIPELINE.equals(pipeline.name())) {
+                throw new IllegalStateException("Duplicate pipeline name: " + pipeline.name());
+            }
+            
+            ConcurrentMessageListenerContainer<String, String> container = createContainer(pipeline);
+            containers.put(pipeline.name(), container);
+            container.start();
+            
+            logger.info("Pipeline {} started: {} -> {}", pipeline.name(), pipeline.topic(), pipeline.producerTopic());
+        }
+        running = true;
+    }
+    
+    @Override
+    public synchronized void stop() {
+        containers.values().forEach(ConcurrentMessageListenerContainer::stop);
+        containers.clear();
+        
+        // Listeners are stopped, so the group-commit writers can flush and exit
+        consumerServices.forEach(EventConsumerService::destroy);
+        consumerServices.clear();
+        running = false;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public Set<String> getPipelineNames() {
+        return Collections.unmodifiableSet(containers.keySet());
+    }
+    
+    public ConcurrentMessageListenerContainer<String, String> getContainer(String pipelineName) {
+        return containers.get(pipelineName);
+    }
+    
+    private ConcurrentMessageListenerContainer<String, String> createContainer(OrchestratorProperties.PipelineConfig pipeline) {
+        OrchestratorProperties pipelineProperties = properties.forPipeline(pipeline);
+        EventStore eventStore = resolveBean(pipeline.store(), EventStore.class);
+        MessageTransformer transformer = resolveBean(pipeline.transformer(), MessageTransformer.class);
+        
+        // Publishers are per pipeline only for their topic; the producers behind them are shared
+        EventPublisherService publisherService = new EventPublisherService(
+            producerClusterRegistry, new RuleBasedMessageRouter(pipelineProperties), pipelineProperties, latencyTracker);
+        
+        ConcurrentMessageListenerContainer<String, String> container;
+        
+        if (pipelineProperties.producer().exactlyOnce()) {
+            TransactionalEventConsumerService consumerService = new TransactionalEventConsumerService(
+                eventStore, publisherService, transformer, pipelineProperties, latencyTracker);
+            container = containerFactory("transactionalKafkaListenerContainerFactory").createContainer(pipeline.topic());
+            container.setupMessageListener((BatchMessageListener<String, String>) consumerService::consumeBatch);
+        } else {
+            EventConsumerService consumerService = new EventConsumerService(
+                eventStore, publisherService, transformer, pipelineProperties, latencyTracker, pipeline.name());
+            consumerServices.add(consumerService);
+            container = containerFactory("kafkaListenerContainerFactory").createContainer(pipeline.topic());
+            container.setupMessageListener((AcknowledgingMessageListener<String, String>) consumerService::consumeEvents);
+        }
+        
+        container.getContainerProperties().setGroupId(pipelineProperties.consumer().groupId());
+        container.setConcurrency(pipelineProperties.consumer().concurrency());
+        container.setBeanName("pipeline-" + pipeline.name());
+        
+        return container;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private ConcurrentKafkaListenerContainerFactory<String, String> containerFactory(String beanName) {
+        return beanFactory.getBean(beanName, ConcurrentKafkaListenerContainerFactory.class);
+    }
+    
+    private <T> T resolveBean(String beanName, Class<T> type) {
+        return beanName != null ? beanFactory.getBean(beanName, type) : beanFactory.getBean(type);
+    }
+}
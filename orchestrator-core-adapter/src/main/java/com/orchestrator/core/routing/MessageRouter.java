@@ -0,0 +1,23 @@
+package com.orchestrator.core.routing;
+
+import com.orchestrator.core.store.Event;
+import org.apache.kafka.common.header.Headers;
+
+import java.util.List;
+
+/**
+ * Interface for choosing the destinations of a transformed message.
+ * Implementations may fan a message out to several topics and producer clusters,
+ * or drop it by returning no targets.
+ */
+public interface MessageRouter {
+    
+    /**
+     * Resolve the destinations of a message
+     * @param event Event being published
+     * @param message Transformed message payload
+     * @param sourceHeaders Headers of the consumed record, may be null
+     * @return Zero or more route targets
+     */
+    List<RouteTarget> route(Event event, String message, Headers sourceHeaders);
+}
@@ -0,0 +1,13 @@
+package com.orchestrator.core.routing;
+
+/**
+ * Destination of a routed message
+ * @param topic Target topic
+ * @param cluster Named producer cluster, or null for the default producer
+ */
+public record RouteTarget(String topic, String cluster) {
+    
+    public static RouteTarget of(String topic) {
+        return new RouteTarget(topic, null);
+    }
+}
@@ -0,0 +1,163 @@
+package com.orchestrator.core.routing;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.store.Event;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default router driven by declarative header and JSON-path rules.
+ * Rules are compiled once at startup; every matching rule contributes a target, and
+ * messages matching no rule go to the producer topic unless drop-unmatched is set.
+ */
+public class RuleBasedMessageRouter implements MessageRouter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RuleBasedMessageRouter.class);
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<CompiledRule> rules;
+    private final List<RouteTarget> unmatchedTargets;
+    
+    public RuleBasedMessageRouter(OrchestratorProperties properties) {
+        OrchestratorProperties.RoutingConfig routing = properties.routing();
+        
+        this.rules = routing.rules().stream().map(rule -> compile(rule, routing.clusters())).toList();
+        this.unmatchedTargets = routing.dropUnmatched()
+            ? List.of()
+            : List.of(RouteTarget.of(properties.producer().topic()));
+        
+        logger.info("Message routing initialized with {} rules (dropUnmatched={})", rules.size(), routing.dropUnmatched());
+    }
+    
+    @Override
+    public List<RouteTarget> route(Event event, String message, Headers sourceHeaders) {
+        if (rules.isEmpty()) {
+            return unmatchedTargets;
+        }
+        
+        List<RouteTarget> targets = null;
+        JsonNode document = null;
+        boolean parsed = false;
+        
+        for (CompiledRule rule : rules) {
+            boolean matches;
+            
+            if (rule.header() != null) {
+                matches = matchesHeader(rule, sourceHeaders);
+            } else {
+                // Parse lazily and at most once per message
+                if (!parsed) {
+                    document = parse(event, message);
+                    parsed = true;
+                }
+                matches = matchesJson(rule, document);
+            }
+            
+            if (matches) {
+                if (targets == null) {
+                    targets = new ArrayList<>(rules.size());
+                }
+                targets.add(rule.target());
+            }
+        }
+        
+        return targets != null ? targets : unmatchedTargets;
+    }
+    
+    private boolean matchesHeader(CompiledRule rule, Headers sourceHeaders) {
+        if (sourceHeaders == null) {
+            return false;
+        }
+        
+        Header header = sourceHeaders.lastHeader(rule.header());
+        if (header == null) {
+            return false;
+        }
+        
+        return rule.expectedBytes() == null || Arrays.equals(rule.expectedBytes(), header.value());
+    }
+    
+    private boolean matchesJson(CompiledRule rule, JsonNode document) {
+        if (document == null) {
+            return false;
+        }
+        
+        JsonNode node = document.at(rule.jsonPointer());
+        if (node.isMissingNode()) {
+            return false;
+        }
+        
+        return rule.expectedValue() == null || (node.isValueNode() && rule.expectedValue().equals(node.asText()));
+    }
+    
+    private JsonNode parse(Event event, String message) {
+        try {
+            return objectMapper.readTree(message);
+        } catch (Exception e) {
+            logger.debug("Event {} is not valid JSON, JSON-path routing rules skipped: {}", event.getId(), e.getMessage());
+            return null;
+        }
+    }
+    
+    private static CompiledRule compile(OrchestratorProperties.RouteRule rule, Map<String, String> clusters) {
+        if (rule.topic() == null || rule.topic().isBlank()) {
+            throw new IllegalArgumentException("Routing rule must declare a target topic: " + rule);
+        }
+        if ((rule.header() == null) == (rule.jsonPath() == null)) {
+            throw new IllegalArgumentException("Routing rule must declare exactly one of header or json-path: " + rule);
+        }
+        if (rule.cluster() != null && !clusters.containsKey(rule.cluster())) {
+            throw new IllegalArgumentException("Routing rule targets cluster " + rule.cluster()
+                + ", which is not declared in orchestrator.routing.clusters: " + rule);
+        }
+        
+        RouteTarget target = new RouteTarget(rule.topic(), rule.cluster());
+        
+        if (rule.header() != null) {
+            byte[] expectedBytes = rule.value() != null ? rule.value().getBytes(StandardCharsets.UTF_8) : null;
+            return new CompiledRule(rule.header(), null, expectedBytes, null, target);
+        }
+        
+        return new CompiledRule(null, toJsonPointer(rule.jsonPath()), null, rule.value(), target);
+    }
+    
+    /**
+     * Convert a simple JSON path ($.a.b[0]) into a JSON pointer (/a/b/0)
+     */
+    static JsonPointer toJsonPointer(String jsonPath) {
+        if (jsonPath.startsWith("/")) {
+            return JsonPointer.compile(jsonPath);
+        }
+        if (!jsonPath.startsWith("$")) {
+            throw new IllegalArgumentException("JSON path must start with '$': " + jsonPath);
+        }
+        
+        StringBuilder pointer = new StringBuilder();
+        for (String segment : jsonPath.substring(1).split("[.\\[\\]]")) {
+            if (!segment.isEmpty()) {
+                pointer.append('/').append(segment.replace("~", "~0").replace("/", "~1"));
+            }
+        }
+        
+        return JsonPointer.compile(pointer.toString());
+    }
+    
+    private record CompiledRule(
+        String header,
+        JsonPointer jsonPointer,
+        byte[] expectedBytes,
+        String expectedValue,
+        RouteTarget target
+    ) {}
+}
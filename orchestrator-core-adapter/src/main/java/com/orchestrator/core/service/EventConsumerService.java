@@ -5,33 +5,42 @@ import com.orchestrator.core.metrics.LatencyTracker;
 import com.orchestrator.core.store.Event;
 import com.orchestrator.core.store.EventStatus;
 import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.store.GroupCommitInserter;
 import com.orchestrator.core.transformer.MessageTransformer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * High-performance event consumer with comprehensive latency tracking
  */
 @Service
-public class EventConsumerService {
+public class EventConsumerService implements DisposableBean {
     
     private static final Logger logger = LoggerFactory.getLogger(EventConsumerService.class);
     
+    /**
+     * Pipeline name of the consumer configured directly under orchestrator
+     */
+    public static final String DEFAULT_PIPELINE = "default";
+    
     private final EventStore eventStore;
     private final EventPublisherService publisherService;
     private final MessageTransformer messageTransformer;
     private final OrchestratorProperties properties;
     private final LatencyTracker latencyTracker;
+    private final GroupCommitInserter inserter;
     
     public EventConsumerService(
             EventStore eventStore,
@@ -39,11 +48,28 @@ public class EventConsumerService {
             MessageTransformer messageTransformer,
             OrchestratorProperties properties,
             LatencyTracker latencyTracker) {
+        this(eventStore, publisherService, messageTransformer, properties, latencyTracker, DEFAULT_PIPELINE);
+    }
+    
+    /**
+     * @param pipelineName Names the group-commit writer and its metrics; unique per JVM, unlike the group id
+     */
+    public EventConsumerService(
+            EventStore eventStore,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker,
+            String pipelineName) {
         this.eventStore = eventStore;
         this.publisherService = publisherService;
         this.messageTransformer = messageTransformer;
         this.properties = properties;
         this.latencyTracker = latencyTracker;
+        
+        // Shared by all listener threads, so their single-event inserts are committed together
+        this.inserter = new GroupCommitInserter(eventStore, properties.database(),
+            latencyTracker.getMeterRegistry(), pipelineName);
     }
     
     @KafkaListener(
@@ -72,11 +98,12 @@ public class EventConsumerService {
         
         try {
             Event event = createEventWithTiming(record, sendTimestampNs, receivedAt);
+            event.setMessageKey(messageTransformer.deriveKey(record.key(), record.value()));
             
             switch (properties.database().strategy()) {
-                case OUTBOX -> processOutboxModeWithTiming(event);
-                case RELIABLE -> processReliableModeWithTiming(event);
-                case LIGHTWEIGHT -> processLightweightModeWithTiming(event);
+                case OUTBOX -> processOutboxModeWithTiming(event, record.headers());
+                case RELIABLE -> processReliableModeWithTiming(event, record.headers());
+                case LIGHTWEIGHT -> processLightweightModeWithTiming(event, record.headers());
             }
             
             acknowledgment.acknowledge();
@@ -88,7 +115,7 @@ public class EventConsumerService {
         }
     }
     
-    private Long extractSendTimestamp(ConsumerRecord<String, String> record) {
+    static Long extractSendTimestamp(ConsumerRecord<String, String> record) {
         try {
             if (record.headers() != null) {
                 var timestampHeader = record.headers().lastHeader("send_timestamp_ns");
@@ -102,7 +129,7 @@ public class EventConsumerService {
         return null;
     }
     
-    private String extractMessageId(ConsumerRecord<String, String> record) {
+    static String extractMessageId(ConsumerRecord<String, String> record) {
         try {
             if (record.headers() != null) {
                 var messageIdHeader = record.headers().lastHeader("message_id");
@@ -116,7 +143,7 @@ public class EventConsumerService {
         return record.key(); // Fallback to record key
     }
     
-    private String extractSource(ConsumerRecord<String, String> record) {
+    static String extractSource(ConsumerRecord<String, String> record) {
         try {
             if (record.headers() != null) {
                 var sourceHeader = record.headers().lastHeader("source");
@@ -130,7 +157,7 @@ public class EventConsumerService {
         return "unknown";
     }
     
-    private Event createEventWithTiming(ConsumerRecord<String, String> record, Long sendTimestampNs, Instant receivedAt) {
+    static Event createEventWithTiming(ConsumerRecord<String, String> record, Long sendTimestampNs, Instant receivedAt) {
         String eventId = UUID.randomUUID().toString();
         String topicPartition = record.topic() + "-" + record.partition();
         Event event = new Event(eventId, record.value(), topicPartition, record.offset());
@@ -142,12 +169,17 @@ public class EventConsumerService {
         return event;
     }
     
-    private void processOutboxModeWithTiming(Event event) {
+    private void processOutboxModeWithTiming(Event event, Headers sourceHeaders) {
         Instant processingStart = Instant.now();
         
-        eventStore.bulkInsert(List.of(event));
+        insertDurably(event);
+        
+        // The outbox relay owns publishing once the row is durable
+        if (properties.outbox().relayEnabled()) {
+            return;
+        }
         
-        CompletableFuture<Void> future = transformAndPublishAsyncWithTiming(event, processingStart);
+        CompletableFuture<Void> future = transformAndPublishAsyncWithTiming(event, sourceHeaders, processingStart);
         
         future.whenComplete((result, throwable) -> {
             if (throwable == null) {
@@ -158,18 +190,18 @@ public class EventConsumerService {
         });
     }
     
-    private void processReliableModeWithTiming(Event event) {
+    private void processReliableModeWithTiming(Event event, Headers sourceHeaders) {
         Instant processingStart = Instant.now();
         
         try {
-            eventStore.bulkInsert(List.of(event));
+            insertDurably(event);
             
             String transformedMessage = messageTransformer.transform(event.getPayload());
             
             Instant publishStart = Instant.now();
             latencyTracker.recordProcessingLatency(processingStart, publishStart);
             
-            publisherService.publishMessage(transformedMessage)
+            publisherService.publishEvent(event, transformedMessage, sourceHeaders)
                 .thenAccept(result -> {
                     Instant publishEnd = Instant.now();
                     event.setProcessedAt(publishStart);
@@ -195,7 +227,7 @@ public class EventConsumerService {
         }
     }
     
-    private void processLightweightModeWithTiming(Event event) {
+    private void processLightweightModeWithTiming(Event event, Headers sourceHeaders) {
         Instant processingStart = Instant.now();
         
         try {
@@ -204,7 +236,7 @@ public class EventConsumerService {
             Instant publishStart = Instant.now();
             latencyTracker.recordProcessingLatency(processingStart, publishStart);
             
-            publisherService.publishMessage(transformedMessage)
+            publisherService.publishEvent(event, transformedMessage, sourceHeaders)
                 .thenAccept(result -> {
                     Instant publishEnd = Instant.now();
                     event.setProcessedAt(publishStart);
@@ -221,8 +253,8 @@ public class EventConsumerService {
                     Event failedEvent = event;
                     failedEvent.setStatus(EventStatus.FAILED);
                     failedEvent.setErrorMessage(throwable.getMessage());
-                    eventStore.bulkInsert(List.of(failedEvent));
-                    logger.error("PRODUCER ERROR: Failed to publish event, logged to DB: {}", failedEvent.getId(), throwable);
+                    insertFailure(failedEvent);
+                    logger.error("PRODUCER ERROR: Failed to publish event, logging to DB: {}", failedEvent.getId(), throwable);
                     return null;
                 });
                 
@@ -230,11 +262,42 @@ public class EventConsumerService {
             Event failedEvent = event;
             failedEvent.setStatus(EventStatus.FAILED);
             failedEvent.setErrorMessage(e.getMessage());
-            eventStore.bulkInsert(List.of(failedEvent));
+            insertDurably(failedEvent);
             logger.error("Failed to process event in LIGHTWEIGHT mode: {}", failedEvent.getId(), e);
         }
     }
     
+    /**
+     * Queues a failed event for the next group commit without waiting for it; runs on the
+     * producer's I/O thread, where waiting out a linger window would stall every other send
+     */
+    private void insertFailure(Event event) {
+        inserter.insert(event).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                logger.error("Failed to log failed event {} to DB: {}", event.getId(), throwable.getMessage(), throwable);
+            }
+        });
+    }
+    
+    /**
+     * Waits until the group commit that carries the event is persisted
+     */
+    private void insertDurably(Event event) {
+        try {
+            inserter.insert(event).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException("Bulk insert failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for event insert", e);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        inserter.close();
+    }
+    
     private void updateEventStatusWithTiming(String eventId, EventStatus status, Event event) {
         updateEventStatusWithTiming(eventId, status, event, null);
     }
@@ -249,14 +312,14 @@ public class EventConsumerService {
         });
     }
     
-    private CompletableFuture<Void> transformAndPublishAsyncWithTiming(Event event, Instant processingStart) {
+    private CompletableFuture<Void> transformAndPublishAsyncWithTiming(Event event, Headers sourceHeaders, Instant processingStart) {
         return CompletableFuture
             .supplyAsync(() -> messageTransformer.transform(event.getPayload()))
             .thenCompose(transformedMessage -> {
                 Instant publishStart = Instant.now();
                 latencyTracker.recordProcessingLatency(processingStart, publishStart);
                 
-                return publisherService.publishMessage(transformedMessage)
+                return publisherService.publishEvent(event, transformedMessage, sourceHeaders)
                     .thenAccept(result -> {
                         Instant publishEnd = Instant.now();
                         event.setProcessedAt(publishStart);
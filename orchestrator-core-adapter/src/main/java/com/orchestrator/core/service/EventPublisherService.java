@@ -1,7 +1,15 @@
 package com.orchestrator.core.service;
 
 import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.config.ProducerClusterRegistry;
 import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.routing.MessageRouter;
+import com.orchestrator.core.routing.RouteTarget;
+import com.orchestrator.core.store.Event;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -10,6 +18,9 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -20,17 +31,28 @@ public class EventPublisherService {
     
     private static final Logger logger = LoggerFactory.getLogger(EventPublisherService.class);
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ProducerClusterRegistry producerClusterRegistry;
+    private final MessageRouter messageRouter;
     private final OrchestratorProperties properties;
     private final LatencyTracker latencyTracker;
     
+    // Resolved once so building each record's headers only touches arrays
+    private final String[] forwardedHeaders;
+    private final boolean enrichHeaders;
+    private final byte[] instanceIdBytes;
+    
     public EventPublisherService(
-            KafkaTemplate<String, String> kafkaTemplate,
+            ProducerClusterRegistry producerClusterRegistry,
+            MessageRouter messageRouter,
             OrchestratorProperties properties,
             LatencyTracker latencyTracker) {
-        this.kafkaTemplate = kafkaTemplate;
+        this.producerClusterRegistry = producerClusterRegistry;
+        this.messageRouter = messageRouter;
         this.properties = properties;
         this.latencyTracker = latencyTracker;
+        this.forwardedHeaders = properties.headers().forward().toArray(String[]::new);
+        this.enrichHeaders = properties.headers().enrich();
+        this.instanceIdBytes = properties.instanceId().getBytes(StandardCharsets.UTF_8);
     }
     
     /**
@@ -46,7 +68,7 @@ public class EventPublisherService {
         
         logger.debug("Publishing message to topic: {}", targetTopic);
         
-        return kafkaTemplate.send(targetTopic, message)
+        return producerClusterRegistry.templateFor(null, null).send(targetTopic, message)
             .thenApply(this::handleSuccess)
             .exceptionally(this::handleFailure);
     }
@@ -64,11 +86,119 @@ public class EventPublisherService {
         
         logger.debug("Publishing message with key {} to topic: {}", key, targetTopic);
         
-        return kafkaTemplate.send(targetTopic, key, message)
+        return producerClusterRegistry.templateFor(null, key).send(targetTopic, key, message)
+            .thenApply(this::handleSuccess)
+            .exceptionally(this::handleFailure);
+    }
+    
+    /**
+     * Publish the transformed message of an event, keyed by the event's message key.
+     * With SOURCE_PARTITION partitioning the record goes to the same partition number
+     * it was consumed from, so co-partitioned outputs need no downstream repartition.
+     */
+    @Retryable(
+        retryFor = {Exception.class},
+        maxAttempts = 3,
+        backoff = @Backoff(delay = 1000L)
+    )
+    public CompletableFuture<Void> publishEvent(Event event, String message) {
+        return publishEvent(event, message, null);
+    }
+    
+    /**
+     * Publish the transformed message of an event, forwarding allow-listed headers of the
+     * source record and stamping orchestrator timing headers for multi-hop latency tracing.
+     * The message router decides the target topics; fan-out completes when every send has.
+     */
+    @Retryable(
+        retryFor = {Exception.class},
+        maxAttempts = 3,
+        backoff = @Backoff(delay = 1000L)
+    )
+    public CompletableFuture<Void> publishEvent(Event event, String message, Headers sourceHeaders) {
+        List<RouteTarget> targets = messageRouter.route(event, message, sourceHeaders);
+        
+        if (targets.isEmpty()) {
+            logger.debug("Event {} matched no route and was dropped", event.getId());
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        Headers headers = buildHeaders(event, sourceHeaders);
+        
+        if (targets.size() == 1) {
+            return send(targets.get(0), event, message, headers);
+        }
+        
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[targets.size()];
+        for (int i = 0; i < sends.length; i++) {
+            sends[i] = send(targets.get(i), event, message, headers);
+        }
+        
+        return CompletableFuture.allOf(sends);
+    }
+    
+    private CompletableFuture<Void> send(RouteTarget target, Event event, String message, Headers headers) {
+        KafkaTemplate<String, String> template = producerClusterRegistry.templateFor(target.cluster(), event.getMessageKey());
+        Integer partition = resolvePartition(template, target, event);
+        
+        logger.debug("Publishing event {} with key {} to topic: {} partition: {} cluster: {}", 
+                    event.getId(), event.getMessageKey(), target.topic(), partition, target.cluster());
+        
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+            target.topic(), partition, event.getMessageKey(), message, headers);
+        
+        return template.send(record)
             .thenApply(this::handleSuccess)
             .exceptionally(this::handleFailure);
     }
     
+    private Headers buildHeaders(Event event, Headers sourceHeaders) {
+        RecordHeaders headers = new RecordHeaders();
+        
+        if (sourceHeaders != null) {
+            for (String name : forwardedHeaders) {
+                for (Header header : sourceHeaders.headers(name)) {
+                    headers.add(header);
+                }
+            }
+        }
+        
+        if (enrichHeaders) {
+            if (event.getReceivedAtOrchestrator() != null) {
+                headers.add("orchestrator_received_ns", encodeLong(toEpochNanos(event.getReceivedAtOrchestrator())));
+            }
+            headers.add("orchestrator_published_ns", encodeLong(toEpochNanos(Instant.now())));
+            headers.add("orchestrator_instance_id", instanceIdBytes);
+        }
+        
+        return headers;
+    }
+    
+    private static long toEpochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+    
+    // Same decimal encoding as the send_timestamp_ns header parsed by the consumer
+    private static byte[] encodeLong(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    private Integer resolvePartition(KafkaTemplate<String, String> template, RouteTarget target, Event event) {
+        if (properties.producer().partitioning() != OrchestratorProperties.PartitioningStrategy.SOURCE_PARTITION) {
+            return null;
+        }
+        
+        Integer sourcePartition = event.getSourcePartition();
+        if (sourcePartition == null) {
+            return null;
+        }
+        
+        // Wrap around when the target topic has fewer partitions than the source. Read per send from
+        // the producer's metadata cache, so partitions added to the topic are picked up on refresh.
+        int targetPartitions = template.partitionsFor(target.topic()).size();
+        return sourcePartition % targetPartitions;
+    }
+    
     private Void handleSuccess(SendResult<String, String> result) {
         logger.debug("Message published successfully to topic: {} at offset: {}", 
                     result.getRecordMetadata().topic(), 
@@ -0,0 +1,219 @@
+package com.orchestrator.core.service;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.transformer.MessageTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Dedicated outbox relay that publishes events persisted in OUTBOX mode.
+ * Claims RECEIVED rows in batches under a lease, publishes them as one pipelined
+ * producer batch and bulk-marks them SUCCESS. Leases make it safe to run on every pod: each
+ * batch is claimed under its own token, every send is settled while the lease still holds, and
+ * only the holder of the token can settle the rows.
+ * Backends that can be notified of new rows subclass it and replace the polling loop,
+ * keeping the claim and publish steps.
+ */
+public class OutboxRelayService implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayService.class);
+    
+    private final EventStore eventStore;
+    private final EventPublisherService publisherService;
+    private final MessageTransformer messageTransformer;
+    private final OrchestratorProperties.OutboxConfig config;
+    private final LatencyTracker latencyTracker;
+    private final String leaseOwner;
+    private final Duration deliveryTimeout;
+    
+    private volatile boolean running;
+    private ExecutorService executor;
+    
+    public OutboxRelayService(
+            EventStore eventStore,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        this.eventStore = eventStore;
+        this.publisherService = publisherService;
+        this.messageTransformer = messageTransformer;
+        this.config = properties.outbox();
+        this.latencyTracker = latencyTracker;
+        this.leaseOwner = properties.instanceId();
+        this.deliveryTimeout = properties.producer().deliveryTimeout();
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.submit(this::relayLoop);
+        logger.info("Outbox relay started: owner={}, batchSize={}, lease={}",
+                   leaseOwner, config.batchSize(), config.leaseDuration());
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(config.publishTimeout().plus(deliveryTimeout).toMillis(), TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Outbox relay stopped: owner={}", leaseOwner);
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void relayLoop() {
+        while (running) {
+            try {
+                int relayed = relayBatch();
+                
+                // A full batch means more rows are waiting, so skip the idle wait
+                if (relayed < config.batchSize()) {
+                    Thread.sleep(config.pollInterval().toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("OUTBOX RELAY ERROR: {}", e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+    }
+    
+    /**
+     * Claim, publish and acknowledge one batch of outbox rows
+     * @return Number of events claimed
+     */
+    protected int relayBatch() throws InterruptedException {
+        String claimToken = newClaimToken();
+        List<Event> claimed = eventStore.claimPendingEvents(claimToken, config.batchSize(), config.leaseDuration());
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        
+        publishClaimed(claimed, claimToken);
+        return claimed.size();
+    }
+    
+    /**
+     * Lease owner for one claim, so acknowledgements of a batch whose lease expired and was
+     * claimed again, even by this instance, are told apart from the new owner's
+     */
+    protected String newClaimToken() {
+        return leaseOwner + ":" + UUID.randomUUID();
+    }
+    
+    /**
+     * Publish events leased to this relay and record each outcome
+     * @param claimToken Lease owner the events were claimed with
+     */
+    protected void publishClaimed(List<Event> claimed, String claimToken) throws InterruptedException {
+        Instant publishStart = Instant.now();
+        List<CompletableFuture<Void>> sends = new ArrayList<>(claimed.size());
+        
+        // Issue every send before waiting on any, so the producer can fill its batches
+        for (Event event : claimed) {
+            sends.add(publishEvent(event));
+        }
+        
+        CompletableFuture<Void> all = CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
+        if (!await(all, config.publishTimeout())) {
+            // The producer settles every send within its delivery timeout, and the lease outlasts
+            // both, so waiting here keeps a late success from being reclaimed and sent again
+            logger.warn("Outbox batch still in flight after {}, waiting up to the producer delivery timeout", config.publishTimeout());
+            await(all, deliveryTimeout);
+        }
+        
+        List<String> succeeded = new ArrayList<>(claimed.size());
+        for (int i = 0; i < claimed.size(); i++) {
+            Event event = claimed.get(i);
+            CompletableFuture<Void> send = sends.get(i);
+            
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                succeeded.add(event.getId());
+            } else if (send.isDone()) {
+                String error = send.handle((result, throwable) -> throwable.getMessage()).join();
+                if (!eventStore.failClaimed(event.getId(), claimToken, error)) {
+                    logger.warn("Outbox lease of event {} expired before its failure was recorded", event.getId());
+                }
+            }
+            // Sends never settled keep their lease and are reclaimed after it expires
+        }
+        
+        if (!succeeded.isEmpty()) {
+            int settled = eventStore.completeClaimed(succeeded, claimToken);
+            if (settled < succeeded.size()) {
+                logger.warn("Outbox lease of {} published events expired before they were marked SUCCESS", succeeded.size() - settled);
+            }
+        }
+        
+        latencyTracker.recordPublishingLatency(publishStart, Instant.now());
+        logger.debug("Outbox relay published {}/{} claimed events", succeeded.size(), claimed.size());
+    }
+    
+    private CompletableFuture<Void> publishEvent(Event event) {
+        try {
+            // A payload kept by reference past Kafka retention fails the event with the reason
+            return publisherService.publishEvent(event, messageTransformer.transform(event.requirePayload()));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * @return False when the sends have not all completed within the timeout
+     */
+    private static boolean await(CompletableFuture<Void> all, Duration timeout) throws InterruptedException {
+        try {
+            all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Individual outcomes are inspected by the caller
+            logger.debug("Outbox batch completed with failures: {}", e.getMessage());
+        } catch (TimeoutException e) {
+            return false;
+        }
+        return true;
+    }
+    
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(config.pollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.orchestrator.core.service;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.store.PayloadUnavailableException;
+import com.orchestrator.core.transformer.MessageTransformer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redrive of FAILED events.
+ * Pages through failed events that are due with keyset pagination, claims each page under a
+ * lease, re-runs transform and publish, and records the outcomes with one bulk update per page.
+ * Republishes pass a token bucket, so a large backlog of failures drains at a fixed rate next to
+ * live traffic. An event that fails again is rescheduled with exponential backoff through
+ * nextRetryAt and stays FAILED once it has used database.max-retries attempts.
+ * Runs from the maintenance scheduler and on demand; each instance runs one redrive at a time.
+ */
+public class RedriveService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RedriveService.class);
+    
+    private final EventStore eventStore;
+    private final EventPublisherService publisherService;
+    private final MessageTransformer messageTransformer;
+    private final OrchestratorProperties.RedriveConfig config;
+    private final int maxRetries;
+    private final Duration publishTimeout;
+    private final Duration leaseDuration;
+    private final String leaseOwner;
+    private final TokenBucket tokenBucket;
+    private final Counter republishedCounter;
+    private final Counter rescheduledCounter;
+    private final Counter exhaustedCounter;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RedriveResult lastResult;
+    
+    public RedriveService(
+            EventStore eventStore,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        this.eventStore = eventStore;
+        this.publisherService = publisherService;
+        this.messageTransformer = messageTransformer;
+        this.config = properties.redrive();
+        this.maxRetries = properties.database().maxRetries();
+        this.publishTimeout = properties.outbox().publishTimeout();
+        this.leaseDuration = properties.outbox().leaseDuration();
+        this.leaseOwner = properties.instanceId();
+        this.tokenBucket = new TokenBucket(config.ratePerSecond());
+        
+        MeterRegistry meterRegistry = latencyTracker.getMeterRegistry();
+        this.republishedCounter = outcomeCounter(meterRegistry, "republished");
+        this.rescheduledCounter = outcomeCounter(meterRegistry, "rescheduled");
+        this.exhaustedCounter = outcomeCounter(meterRegistry, "exhausted");
+    }
+    
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("orchestrator.redrive.events")
+            .description("Failed events redriven, by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Redrive until no failed event is due or the deadline has passed; skipped while an
+     * on-demand redrive is running
+     */
+    public void redrive(Instant deadline) {
+        if (running.compareAndSet(false, true)) {
+            try {
+                run(deadline);
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+    
+    /**
+     * Start a redrive in the background
+     * @return False when a redrive is already running on this instance
+     */
+    public boolean trigger() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        
+        Thread thread = new Thread(() -> {
+            try {
+                run(Instant.now().plus(config.maxRunTime()));
+            } finally {
+                running.set(false);
+            }
+        }, "event-redrive");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+    
+    public boolean isRunning() {
+        return running.get();
+    }
+    
+    public RedriveResult getLastResult() {
+        return lastResult;
+    }
+    
+    private void run(Instant deadline) {
+        Instant startedAt = Instant.now();
+        RedriveResult.Builder result = new RedriveResult.Builder(startedAt);
+        Event after = null;
+        
+        try {
+            while (Instant.now().isBefore(deadline)) {
+                // Due as of the start of the run, so events rescheduled by this run are not met again
+                List<Event> page = eventStore.findFailedEvents(after, startedAt, maxRetries, config.batchSize());
+                if (page.isEmpty()) {
+                    break;
+                }
+                result.scanned += page.size();
+                after = page.get(page.size() - 1);
+                
+                // Long enough for the whole page to pass the token bucket and be published
+                Duration lease = leaseDuration.plusMillis((long) Math.ceil(page.size() * 1000 / config.ratePerSecond()));
+                Set<String> claimedIds = new HashSet<>(eventStore.claimFailedEvents(
+                    page.stream().map(Event::getId).toList(), leaseOwner, lease));
+                List<Event> claimed = page.stream().filter(event -> claimedIds.contains(event.getId())).toList();
+                if (!claimed.isEmpty()) {
+                    result.claimed += claimed.size();
+                    republish(claimed, result);
+                }
+                
+                if (page.size() < config.batchSize()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("REDRIVE ERROR: {}", e.getMessage(), e);
+        }
+        
+        lastResult = result.build();
+        if (lastResult.claimed() > 0) {
+            logger.info("Redrive finished in {}ms: {} republished, {} rescheduled, {} exhausted of {} failed events",
+                       lastResult.durationMs(), lastResult.republished(), lastResult.rescheduled(),
+                       lastResult.exhausted(), lastResult.scanned());
+        }
+    }
+    
+    private void republish(List<Event> claimed, RedriveResult.Builder result) throws InterruptedException {
+        List<CompletableFuture<Void>> sends = new ArrayList<>(claimed.size());
+        for (Event event : claimed) {
+            tokenBucket.acquire();
+            sends.add(publishEvent(event));
+        }
+        
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(publishTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Individual outcomes are inspected below
+            logger.debug("Redrive page completed with failures: {}", e.getMessage());
+        }
+        
+        Instant now = Instant.now();
+        List<String> succeeded = new ArrayList<>(claimed.size());
+        List<Event> failed = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i++) {
+            Event event = claimed.get(i);
+            CompletableFuture<Void> send = sends.get(i);
+            
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                succeeded.add(event.getId());
+            } else if (send.isDone()) {
+                Throwable error = send.handle((ignored, throwable) -> throwable).join();
+                event.setRetryCount(event.getRetryCount() + 1);
+                event.setErrorMessage(error.getMessage());
+                if (error instanceof PayloadUnavailableException) {
+                    // The payload will not come back, so further retries cannot succeed
+                    event.setRetryCount(Math.max(event.getRetryCount(), maxRetries));
+                }
+                if (event.getRetryCount() >= maxRetries) {
+                    event.setNextRetryAt(null);
+                    result.exhausted++;
+                    exhaustedCounter.increment();
+                } else {
+                    event.setNextRetryAt(now.plus(config.backoff(event.getRetryCount())));
+                    result.rescheduled++;
+                    rescheduledCounter.increment();
+                }
+                failed.add(event);
+            }
+            // Sends still in flight stay RETRYING; a later run takes them over once the lease expires
+        }
+        
+        if (!succeeded.isEmpty()) {
+            eventStore.completeRetries(succeeded);
+            result.republished += succeeded.size();
+            republishedCounter.increment(succeeded.size());
+        }
+        if (!failed.isEmpty()) {
+            eventStore.scheduleRetries(failed);
+        }
+    }
+    
+    private CompletableFuture<Void> publishEvent(Event event) {
+        try {
+            return publisherService.publishEvent(event, messageTransformer.transform(event.requirePayload()));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Outcome of one redrive run
+     * @param scanned Failed events read
+     * @param claimed Events this instance claimed; the rest were taken by another instance
+     * @param republished Events published and marked SUCCESS
+     * @param rescheduled Events that failed again and wait for their next retry
+     * @param exhausted Events that failed their last allowed retry, or whose payload is gone, and stay FAILED
+     */
+    public record RedriveResult(
+        Instant startedAt,
+        long durationMs,
+        int scanned,
+        int claimed,
+        int republished,
+        int rescheduled,
+        int exhausted
+    ) {
+        
+        private static final class Builder {
+            private final Instant startedAt;
+            private int scanned;
+            private int claimed;
+            private int republished;
+            private int rescheduled;
+            private int exhausted;
+            
+            private Builder(Instant startedAt) {
+                this.startedAt = startedAt;
+            }
+            
+            private RedriveResult build() {
+                return new RedriveResult(startedAt, Duration.between(startedAt, Instant.now()).toMillis(),
+                    scanned, claimed, republished, rescheduled, exhausted);
+            }
+        }
+    }
+    
+    /**
+     * Token bucket holding at most one second of tokens, so a redrive starting from idle sends
+     * one second's worth at once and then settles to the configured rate
+     */
+    static final class TokenBucket {
+        
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+        
+        TokenBucket(double ratePerSecond) {
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1, ratePerSecond);
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+        
+        synchronized void acquire() throws InterruptedException {
+            refill();
+            while (tokens < 1) {
+                TimeUnit.NANOSECONDS.sleep((long) Math.ceil((1 - tokens) / tokensPerNano));
+                refill();
+            }
+            tokens -= 1;
+        }
+        
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.orchestrator.core.service;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStatus;
+import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.transformer.MessageTransformer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exactly-once consume-transform-produce listener.
+ * The container wraps every poll batch in one Kafka transaction: all output records and the
+ * consumed offsets commit or abort together, so LIGHTWEIGHT mode is exactly-once without any
+ * database writes. OUTBOX and RELIABLE still record the batch as an audit trail.
+ */
+public class TransactionalEventConsumerService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TransactionalEventConsumerService.class);
+    
+    private final EventStore eventStore;
+    private final EventPublisherService publisherService;
+    private final MessageTransformer messageTransformer;
+    private final OrchestratorProperties properties;
+    private final LatencyTracker latencyTracker;
+    
+    public TransactionalEventConsumerService(
+            EventStore eventStore,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        this.eventStore = eventStore;
+        this.publisherService = publisherService;
+        this.messageTransformer = messageTransformer;
+        this.properties = properties;
+        this.latencyTracker = latencyTracker;
+    }
+    
+    @KafkaListener(
+        topics = "${orchestrator.consumer.topic}",
+        containerFactory = "transactionalKafkaListenerContainerFactory"
+    )
+    public void consumeBatch(List<ConsumerRecord<String, String>> records) {
+        Instant receivedAt = Instant.now();
+        logger.debug("TRANSACTIONAL BATCH: Received {} records at {}", records.size(), receivedAt);
+        
+        List<Event> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            Long sendTimestampNs = EventConsumerService.extractSendTimestamp(record);
+            if (sendTimestampNs != null && sendTimestampNs > 0) {
+                latencyTracker.recordConsumerLatency(sendTimestampNs, receivedAt);
+            }
+            Event event = EventConsumerService.createEventWithTiming(record, sendTimestampNs, receivedAt);
+            event.setMessageKey(messageTransformer.deriveKey(record.key(), record.value()));
+            events.add(event);
+        }
+        
+        boolean audit = properties.database().strategy() != OrchestratorProperties.DatabaseStrategy.LIGHTWEIGHT;
+        if (audit) {
+            eventStore.bulkInsert(events);
+            registerAuditCompletion(events);
+        }
+        
+        // Any exception aborts the transaction: no output is visible and the batch is redelivered
+        Instant publishStart = Instant.now();
+        latencyTracker.recordProcessingLatency(receivedAt, publishStart);
+        
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            String transformedMessage = messageTransformer.transform(event.getPayload());
+            
+            publisherService.publishEvent(event, transformedMessage, records.get(i).headers())
+                .thenAccept(result -> {
+                    event.setProcessedAt(publishStart);
+                    event.setPublishedAt(Instant.now());
+                    event.calculateTimingMetrics();
+                    
+                    if (event.getTotalLatencyMs() != null) {
+                        latencyTracker.recordEndToEndLatency(event.getTotalLatencyMs(), event.getSendTimestampNs());
+                    }
+                });
+        }
+        
+        latencyTracker.recordPublishingLatency(publishStart, Instant.now());
+    }
+    
+    /**
+     * Settle the audit rows once the Kafka transaction outcome is known. Rows of an aborted
+     * transaction are deleted: the batch is redelivered and audited again under new ids, so
+     * keeping them as FAILED would let redrive publish them a second time.
+     */
+    private void registerAuditCompletion(List<Event> events) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        
+        List<String> eventIds = events.stream().map(Event::getId).toList();
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    try {
+                        eventStore.deleteEvents(events);
+                    } catch (Exception e) {
+                        logger.error("Failed to delete {} audited events of an aborted transaction", events.size(), e);
+                    }
+                    return;
+                }
+                
+                try {
+                    eventStore.bulkUpdateStatus(eventIds, EventStatus.SUCCESS);
+                } catch (Exception e) {
+                    logger.error("Failed to mark {} audited events as {}", eventIds.size(), EventStatus.SUCCESS, e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.orchestrator.core.store;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Picks the batch size and linger of a group-commit inserter from observed insert latency.
+ * Every window of batches it compares the store's insert rate (rows per second spent inside
+ * bulkInsert) with the previous window and keeps stepping batch size and linger in the direction
+ * that improved it; on a plateau it steps down, since smaller batches then cost nothing and wait
+ * less. When the average batch takes longer than the latency target, both are halved.
+ * Windows where batches stay mostly empty are demand-bound and leave the settings alone.
+ * With the controller disabled the configured bulk size and linger are used as they are.
+ */
+public class AdaptiveBatchController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBatchController.class);
+    
+    private static final double STEP = 1.25;
+    private static final double THRESHOLD = 0.02; // rate changes within 2% count as flat
+    
+    private final OrchestratorProperties.AdaptiveBatchConfig config;
+    private final String name;
+    
+    private volatile int batchSize;
+    private volatile long lingerNanos;
+    private volatile double insertRate;
+    private volatile double insertLatencyMs;
+    
+    private int direction = 1;
+    private double previousRate;
+    private int windowBatches;
+    private long windowRows;
+    private long windowNanos;
+    
+    public AdaptiveBatchController(OrchestratorProperties.DatabaseConfig database, MeterRegistry meterRegistry, String name) {
+        this.config = database.adaptiveBatch();
+        this.name = name;
+        
+        if (config.enabled()) {
+            this.batchSize = clamp(database.bulkSize(), config.minBatchSize(), config.maxBatchSize());
+            this.lingerNanos = clamp(database.bulkLinger().toNanos(), config.minLinger().toNanos(), config.maxLinger().toNanos());
+        } else {
+            this.batchSize = database.bulkSize();
+            this.lingerNanos = database.bulkLinger().toNanos();
+        }
+        
+        Gauge.builder("orchestrator.db.batch.target_size", this, AdaptiveBatchController::getBatchSize)
+            .description("Current group-commit batch size limit")
+            .tag("pipeline", name)
+            .register(meterRegistry);
+        Gauge.builder("orchestrator.db.batch.linger", this, controller -> controller.lingerNanos / 1_000_000_000.0)
+            .description("Current group-commit linger time")
+            .tag("pipeline", name)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("orchestrator.db.batch.insert_rate", this, controller -> controller.insertRate)
+            .description("Rows per second of bulkInsert time over the last evaluation window")
+            .tag("pipeline", name)
+            .register(meterRegistry);
+        Gauge.builder("orchestrator.db.batch.insert_latency", this, controller -> controller.insertLatencyMs)
+            .description("Average bulkInsert latency over the last evaluation window")
+            .tag("pipeline", name)
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public long getLingerNanos() {
+        return lingerNanos;
+    }
+    
+    /**
+     * Record one completed bulkInsert; only called from the inserter's writer thread
+     */
+    public void record(int rows, long elapsedNanos) {
+        windowBatches++;
+        windowRows += rows;
+        windowNanos += elapsedNanos;
+        
+        if (windowBatches < config.window()) {
+            return;
+        }
+        
+        double rate = windowRows / Math.max(windowNanos / 1_000_000_000.0, 1e-9);
+        long averageNanos = windowNanos / windowBatches;
+        double averageRows = (double) windowRows / windowBatches;
+        insertRate = rate;
+        insertLatencyMs = averageNanos / 1_000_000.0;
+        
+        windowBatches = 0;
+        windowRows = 0;
+        windowNanos = 0;
+        
+        if (config.enabled()) {
+            adjust(rate, averageNanos, averageRows);
+        }
+    }
+    
+    private void adjust(double rate, long averageNanos, double averageRows) {
+        if (averageNanos > config.latencyTarget().toNanos()) {
+            // Back off hard: the store is slow, so smaller batches keep each caller's wait bounded
+            direction = -1;
+            resize(0.5);
+            logger.debug("Group commit {} over latency target ({}ms): batchSize={}, linger={}us",
+                        name, averageNanos / 1_000_000, batchSize, lingerNanos / 1000);
+        } else if (averageRows < batchSize / 2.0) {
+            // Demand-bound: batches close on linger, not size, so the rate says nothing about size
+            return;
+        } else {
+            if (previousRate > 0 && rate < previousRate * (1 - THRESHOLD)) {
+                direction = -direction;
+            } else if (previousRate > 0 && rate < previousRate * (1 + THRESHOLD)) {
+                direction = -1; // flat: same rate with smaller batches means less waiting
+            }
+            resize(direction > 0 ? STEP : 1 / STEP);
+            logger.debug("Group commit {} at {} rows/s: batchSize={}, linger={}us",
+                        name, Math.round(rate), batchSize, lingerNanos / 1000);
+        }
+        previousRate = rate;
+    }
+    
+    private void resize(double factor) {
+        int resized = (int) Math.round(batchSize * factor);
+        if (resized == batchSize) {
+            resized += factor > 1 ? 1 : -1;
+        }
+        batchSize = clamp(resized, config.minBatchSize(), config.maxBatchSize());
+        lingerNanos = clamp(Math.round(lingerNanos * factor), config.minLinger().toNanos(), config.maxLinger().toNanos());
+    }
+    
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+    
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
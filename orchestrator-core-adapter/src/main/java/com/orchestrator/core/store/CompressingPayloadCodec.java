@@ -0,0 +1,184 @@
+package com.orchestrator.core.store;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LZ4 or Zstd payload compression.
+ * Zstd can use a dictionary per source topic, trained offline on sample payloads
+ * ({@code zstd --train}); small JSON messages share most of their structure, so a
+ * dictionary compresses them far better than each message on its own.
+ * <p>
+ * Layout: format byte, uncompressed length, for Zstd the dictionary id (0 = none),
+ * then the compressed bytes. Payloads below the minimum size, or that do not shrink,
+ * are stored uncompressed behind the format byte.
+ */
+public class CompressingPayloadCodec implements PayloadCodec {
+    
+    private static final byte RAW = 0;
+    private static final byte LZ4 = 1;
+    private static final byte ZSTD = 2;
+    
+    private final OrchestratorProperties.CompressionAlgorithm algorithm;
+    private final int level;
+    private final int minSize;
+    private final LZ4Compressor lz4Compressor;
+    private final LZ4FastDecompressor lz4Decompressor;
+    private final Map<String, ZstdDictCompress> compressDictionaries = new HashMap<>();
+    private final Map<Integer, ZstdDictDecompress> decompressDictionaries = new HashMap<>();
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    
+    /**
+     * @param config Codec settings
+     * @param dictionaries Zstd dictionary contents by source topic
+     * @param latencyTracker Provides the meter registry for the compression metrics
+     */
+    public CompressingPayloadCodec(OrchestratorProperties.PayloadCodecConfig config,
+                                   Map<String, byte[]> dictionaries,
+                                   LatencyTracker latencyTracker) {
+        this.algorithm = config.algorithm();
+        this.level = config.level();
+        this.minSize = config.minSize();
+        
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.lz4Compressor = lz4.fastCompressor();
+        this.lz4Decompressor = lz4.fastDecompressor();
+        
+        dictionaries.forEach((topic, dictionary) -> {
+            int dictionaryId = (int) Zstd.getDictIdFromDict(dictionary);
+            if (dictionaryId == 0) {
+                throw new IllegalArgumentException("Not a trained zstd dictionary for topic " + topic);
+            }
+            compressDictionaries.put(topic, new ZstdDictCompress(dictionary, level));
+            decompressDictionaries.put(dictionaryId, new ZstdDictDecompress(dictionary));
+            dictionaryIds.put(topic, dictionaryId);
+        });
+        
+        MeterRegistry meterRegistry = latencyTracker.getMeterRegistry();
+        String algorithmTag = algorithm.name().toLowerCase();
+        
+        FunctionCounter.builder("orchestrator.payload.raw.bytes", rawBytes, LongAdder::sum)
+            .description("Uncompressed size of the payloads written to the event store")
+            .baseUnit("bytes")
+            .tag("algorithm", algorithmTag)
+            .register(meterRegistry);
+        FunctionCounter.builder("orchestrator.payload.stored.bytes", storedBytes, LongAdder::sum)
+            .description("Encoded size of the payloads written to the event store")
+            .baseUnit("bytes")
+            .tag("algorithm", algorithmTag)
+            .register(meterRegistry);
+        Gauge.builder("orchestrator.payload.compression.ratio", this, CompressingPayloadCodec::getCompressionRatio)
+            .description("Uncompressed over stored payload bytes since startup")
+            .tag("algorithm", algorithmTag)
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public byte[] encode(Event event) {
+        byte[] raw = event.getPayload().getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = raw.length >= minSize ? compress(raw, sourceTopic(event)) : null;
+        
+        if (encoded == null || encoded.length >= raw.length + 1) {
+            encoded = new byte[raw.length + 1];
+            encoded[0] = RAW;
+            System.arraycopy(raw, 0, encoded, 1, raw.length);
+        }
+        
+        rawBytes.add(raw.length);
+        storedBytes.add(encoded.length);
+        return encoded;
+    }
+    
+    private byte[] compress(byte[] raw, String sourceTopic) {
+        if (algorithm == OrchestratorProperties.CompressionAlgorithm.LZ4) {
+            int headerSize = 5;
+            byte[] target = new byte[headerSize + lz4Compressor.maxCompressedLength(raw.length)];
+            int compressedLength = lz4Compressor.compress(raw, 0, raw.length, target, headerSize);
+            ByteBuffer.wrap(target).put(LZ4).putInt(raw.length);
+            return Arrays.copyOf(target, headerSize + compressedLength);
+        }
+        
+        ZstdDictCompress dictionary = sourceTopic != null ? compressDictionaries.get(sourceTopic) : null;
+        byte[] frame = dictionary != null ? Zstd.compress(raw, dictionary) : Zstd.compress(raw, level);
+        int dictionaryId = dictionary != null ? dictionaryIds.get(sourceTopic) : 0;
+        
+        return ByteBuffer.allocate(9 + frame.length)
+            .put(ZSTD)
+            .putInt(raw.length)
+            .putInt(dictionaryId)
+            .put(frame)
+            .array();
+    }
+    
+    @Override
+    public String decode(byte[] data) {
+        ByteBuffer header = ByteBuffer.wrap(data);
+        byte format = header.get();
+        
+        if (format == RAW) {
+            return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+        }
+        
+        int rawLength = header.getInt();
+        byte[] raw = new byte[rawLength];
+        
+        if (format == LZ4) {
+            lz4Decompressor.decompress(data, 5, raw, 0, rawLength);
+        } else if (format == ZSTD) {
+            int dictionaryId = header.getInt();
+            long result;
+            if (dictionaryId == 0) {
+                result = Zstd.decompressByteArray(raw, 0, rawLength, data, 9, data.length - 9);
+            } else {
+                ZstdDictDecompress dictionary = decompressDictionaries.get(dictionaryId);
+                if (dictionary == null) {
+                    throw new IllegalStateException("Payload compressed with unknown zstd dictionary " + dictionaryId);
+                }
+                result = Zstd.decompressFastDict(raw, 0, data, 9, data.length - 9, dictionary);
+            }
+            if (Zstd.isError(result)) {
+                throw new IllegalStateException("Payload decompression failed: " + Zstd.getErrorName(result));
+            }
+        } else {
+            throw new IllegalStateException("Unknown payload format " + format);
+        }
+        
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+    
+    public double getCompressionRatio() {
+        long stored = storedBytes.sum();
+        return stored > 0 ? (double) rawBytes.sum() / stored : 1.0;
+    }
+    
+    /**
+     * Events carry their source as topic-partition
+     */
+    private static String sourceTopic(Event event) {
+        String topicPartition = event.getTopicPartition();
+        if (topicPartition == null) {
+            return null;
+        }
+        int separator = topicPartition.lastIndexOf('-');
+        return separator > 0 ? topicPartition.substring(0, separator) : topicPartition;
+    }
+}
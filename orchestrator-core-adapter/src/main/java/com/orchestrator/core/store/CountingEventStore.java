@@ -0,0 +1,285 @@
+package com.orchestrator.core.store;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EventStore decorator that keeps per-status counts in memory.
+ * Every insert and status transition performed through the store updates striped counters,
+ * so the count methods are O(1) and safe to call from health checks and autoscaler probes.
+ * Status updates start from PROCESSING for events this instance claimed for the outbox relay
+ * and from RECEIVED otherwise; redrive operations move events between FAILED, RETRYING and
+ * SUCCESS. Pending counts keep the stores' meaning of RECEIVED only. Whenever the store is
+ * asked for its real counts the counters are rebased on them, correcting any drift from
+ * writes made outside this instance.
+ */
+public class CountingEventStore implements EventStore {
+    
+    private static final long SLOW_THRESHOLD_MS = 1000;
+    private static final int MAX_LEASED = 100_000;
+    
+    private enum Bucket {
+        RECEIVED,
+        PROCESSING,
+        SUCCESS,
+        FAILED,
+        RETRYING,
+        SLOW
+    }
+    
+    private final EventStore delegate;
+    private final Map<Bucket, LongAdder> deltas = new EnumMap<>(Bucket.class);
+    private final Map<Bucket, AtomicLong> bases = new EnumMap<>(Bucket.class);
+    // Claimed by the outbox relay and not yet settled, so their update leaves PROCESSING
+    private final Set<String> leased = ConcurrentHashMap.newKeySet();
+    
+    public CountingEventStore(EventStore delegate) {
+        this.delegate = delegate;
+        for (Bucket bucket : Bucket.values()) {
+            deltas.put(bucket, new LongAdder());
+            bases.put(bucket, new AtomicLong());
+        }
+    }
+    
+    public EventStore getDelegate() {
+        return delegate;
+    }
+    
+    @Override
+    public void bulkInsert(List<Event> events) {
+        delegate.bulkInsert(events);
+        
+        for (Event event : events) {
+            deltas.get(bucketOf(event.getStatus())).increment();
+            if (event.getTotalLatencyMs() != null && event.getTotalLatencyMs() > SLOW_THRESHOLD_MS) {
+                deltas.get(Bucket.SLOW).increment();
+            }
+        }
+    }
+    
+    @Override
+    public void updateStatus(String eventId, EventStatus status) {
+        delegate.updateStatus(eventId, status);
+        recordTransition(sourceOf(eventId), status, 1);
+    }
+    
+    @Override
+    public void updateStatus(String eventId, EventStatus status, String errorMessage) {
+        delegate.updateStatus(eventId, status, errorMessage);
+        recordTransition(sourceOf(eventId), status, 1);
+    }
+    
+    @Override
+    public void bulkUpdateStatus(List<String> eventIds, EventStatus status) {
+        delegate.bulkUpdateStatus(eventIds, status);
+        
+        int fromProcessing = 0;
+        for (String eventId : eventIds) {
+            if (sourceOf(eventId) == Bucket.PROCESSING) {
+                fromProcessing++;
+            }
+        }
+        recordTransition(Bucket.PROCESSING, status, fromProcessing);
+        recordTransition(Bucket.RECEIVED, status, eventIds.size() - fromProcessing);
+    }
+    
+    /**
+     * Events re-claimed after an expired lease were already PROCESSING; the next rebase corrects them
+     */
+    @Override
+    public List<Event> claimPendingEvents(String leaseOwner, int limit, Duration leaseDuration) {
+        List<Event> claimed = delegate.claimPendingEvents(leaseOwner, limit, leaseDuration);
+        
+        // Settlements of events lost track of are then counted from RECEIVED until the next rebase
+        if (leased.size() > MAX_LEASED) {
+            leased.clear();
+        }
+        claimed.forEach(event -> leased.add(event.getId()));
+        move(Bucket.RECEIVED, Bucket.PROCESSING, claimed.size());
+        return claimed;
+    }
+    
+    /**
+     * Events no longer held by the claim were settled by their new owner, so only settled ones move
+     */
+    @Override
+    public int completeClaimed(List<String> eventIds, String leaseOwner) {
+        int settled = delegate.completeClaimed(eventIds, leaseOwner);
+        eventIds.forEach(leased::remove);
+        move(Bucket.PROCESSING, Bucket.SUCCESS, settled);
+        return settled;
+    }
+    
+    @Override
+    public boolean failClaimed(String eventId, String leaseOwner, String errorMessage) {
+        boolean settled = delegate.failClaimed(eventId, leaseOwner, errorMessage);
+        leased.remove(eventId);
+        if (settled) {
+            move(Bucket.PROCESSING, Bucket.FAILED, 1);
+        }
+        return settled;
+    }
+    
+    @Override
+    public List<Event> findFailedEvents(Event after, Instant dueBy, int maxRetries, int limit) {
+        return delegate.findFailedEvents(after, dueBy, maxRetries, limit);
+    }
+    
+    /**
+     * Events re-claimed after an expired redrive lease were already RETRYING; the next rebase corrects them
+     */
+    @Override
+    public List<String> claimFailedEvents(List<String> eventIds, String leaseOwner, Duration leaseDuration) {
+        List<String> claimed = delegate.claimFailedEvents(eventIds, leaseOwner, leaseDuration);
+        move(Bucket.FAILED, Bucket.RETRYING, claimed.size());
+        return claimed;
+    }
+    
+    @Override
+    public void scheduleRetries(List<Event> events) {
+        delegate.scheduleRetries(events);
+        move(Bucket.RETRYING, Bucket.FAILED, events.size());
+    }
+    
+    @Override
+    public void completeRetries(List<String> eventIds) {
+        delegate.completeRetries(eventIds);
+        move(Bucket.RETRYING, Bucket.SUCCESS, eventIds.size());
+    }
+    
+    @Override
+    public List<Event> findStaleEvents(Duration threshold) {
+        return delegate.findStaleEvents(threshold);
+    }
+    
+    @Override
+    public long countPendingEvents() {
+        return current(Bucket.RECEIVED);
+    }
+    
+    @Override
+    public long countFailedEvents() {
+        return current(Bucket.FAILED);
+    }
+    
+    @Override
+    public long countProcessedEvents() {
+        return current(Bucket.SUCCESS);
+    }
+    
+    @Override
+    public long countSlowEvents() {
+        return current(Bucket.SLOW);
+    }
+    
+    /**
+     * Counts from the store itself; the result is also used to reconcile the in-memory counters
+     */
+    @Override
+    public Map<EventStatus, Long> countEventsByStatus() {
+        long[] before = snapshotDeltas();
+        Map<EventStatus, Long> counts = delegate.countEventsByStatus();
+        long slowEvents = delegate.countSlowEvents();
+        
+        Map<Bucket, Long> actual = new EnumMap<>(Bucket.class);
+        counts.forEach((status, count) -> actual.merge(bucketOf(status), count, Long::sum));
+        actual.put(Bucket.SLOW, slowEvents);
+        
+        // Transitions made while the store was counting may or may not be included in its
+        // result; they are kept on top of the new base, so at most those are off until next time
+        for (Bucket bucket : Bucket.values()) {
+            bases.get(bucket).set(actual.getOrDefault(bucket, 0L) - before[bucket.ordinal()]);
+        }
+        
+        return counts;
+    }
+    
+    /**
+     * Events not found in the store are corrected by the next rebase
+     */
+    @Override
+    public int deleteEvents(List<Event> events) {
+        int deleted = delegate.deleteEvents(events);
+        for (Event event : events.subList(0, Math.min(deleted, events.size()))) {
+            deltas.get(bucketOf(event.getStatus())).decrement();
+            if (event.getTotalLatencyMs() != null && event.getTotalLatencyMs() > SLOW_THRESHOLD_MS) {
+                deltas.get(Bucket.SLOW).decrement();
+            }
+        }
+        return deleted;
+    }
+    
+    /**
+     * Deleted events span every status, so the counters are rebased on the store afterwards
+     */
+    @Override
+    public int cleanupOldEvents(Duration retentionPeriod) {
+        int deleted = delegate.cleanupOldEvents(retentionPeriod);
+        if (deleted > 0) {
+            countEventsByStatus();
+        }
+        return deleted;
+    }
+    
+    @Override
+    public int cleanupOldEvents(Duration retentionPeriod, Instant deadline) {
+        int deleted = delegate.cleanupOldEvents(retentionPeriod, deadline);
+        if (deleted > 0) {
+            countEventsByStatus();
+        }
+        return deleted;
+    }
+    
+    @Override
+    public boolean tryAcquireLease(String name, String owner, Duration leaseDuration) {
+        return delegate.tryAcquireLease(name, owner, leaseDuration);
+    }
+    
+    private Bucket sourceOf(String eventId) {
+        return leased.remove(eventId) ? Bucket.PROCESSING : Bucket.RECEIVED;
+    }
+    
+    private void recordTransition(Bucket from, EventStatus status, int count) {
+        if (count == 0) {
+            return;
+        }
+        switch (status) {
+            case RETRYING -> move(Bucket.FAILED, Bucket.RETRYING, count);
+            default -> move(from, bucketOf(status), count);
+        }
+    }
+    
+    private void move(Bucket from, Bucket to, int count) {
+        deltas.get(from).add(-count);
+        deltas.get(to).add(count);
+    }
+    
+    private long current(Bucket bucket) {
+        return Math.max(0L, bases.get(bucket).get() + deltas.get(bucket).sum());
+    }
+    
+    private long[] snapshotDeltas() {
+        long[] snapshot = new long[Bucket.values().length];
+        for (Bucket bucket : Bucket.values()) {
+            snapshot[bucket.ordinal()] = deltas.get(bucket).sum();
+        }
+        return snapshot;
+    }
+    
+    private static Bucket bucketOf(EventStatus status) {
+        return switch (status) {
+            case RECEIVED -> Bucket.RECEIVED;
+            case PROCESSING -> Bucket.PROCESSING;
+            case SUCCESS -> Bucket.SUCCESS;
+            case FAILED -> Bucket.FAILED;
+            case RETRYING -> Bucket.RETRYING;
+        };
+    }
+}
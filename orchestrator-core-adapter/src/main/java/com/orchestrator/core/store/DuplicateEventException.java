@@ -0,0 +1,13 @@
+package com.orchestrator.core.store;
+
+/**
+ * Thrown by {@link EventStore#bulkInsert} when an event row with the same id already exists.
+ * Only a conflict on the event itself, never one on a payload row, so a caller may treat the
+ * event as persisted.
+ */
+public class DuplicateEventException extends RuntimeException {
+    
+    public DuplicateEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
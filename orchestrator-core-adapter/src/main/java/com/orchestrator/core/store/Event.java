@@ -18,6 +18,7 @@ public class Event {
     private Instant receivedAt;
     private String topicPartition;
     private Long offsetValue;
+    private String messageKey;
     private Long consumerLatencyMs;
     private Long processingLatencyMs;
     private Long publishingLatencyMs;
@@ -26,6 +27,8 @@ public class Event {
     private Instant updatedAt;
     private String errorMessage;
     private int retryCount;
+    private Instant nextRetryAt;            // When a FAILED event is next due for redrive
+    private String payloadError;            // Why the stored payload could not be read back; not persisted
     
     // Timing metrics for latency tracking
     private Long sendTimestampNs;           // Original send timestamp from load test
@@ -58,6 +61,21 @@ public class Event {
     public String getPayload() { return payload; }
     public void setPayload(String payload) { this.payload = payload; }
     
+    public String getPayloadError() { return payloadError; }
+    public void setPayloadError(String payloadError) { this.payloadError = payloadError; }
+    
+    /**
+     * Payload for publishing an event read back from the store
+     * @throws PayloadUnavailableException When the stored payload could not be read back
+     */
+    public String requirePayload() {
+        if (payload == null) {
+            throw new PayloadUnavailableException("Payload of event " + id + " is unavailable"
+                + (payloadError != null ? ": " + payloadError : ""));
+        }
+        return payload;
+    }
+    
     public String getSourceTopicPartition() { return sourceTopicPartition; }
     public void setSourceTopicPartition(String sourceTopicPartition) { this.sourceTopicPartition = sourceTopicPartition; }
     
@@ -87,6 +105,9 @@ public class Event {
         this.updatedAt = Instant.now();
     }
     
+    public Instant getNextRetryAt() { return nextRetryAt; }
+    public void setNextRetryAt(Instant nextRetryAt) { this.nextRetryAt = nextRetryAt; }
+    
     // Getters and setters for timing metrics
     public Long getSendTimestampNs() { return sendTimestampNs; }
     public void setSendTimestampNs(Long sendTimestampNs) { this.sendTimestampNs = sendTimestampNs; }
@@ -116,6 +137,24 @@ public class Event {
     public Long getOffsetValue() { return offsetValue; }
     public void setOffsetValue(Long offsetValue) { this.offsetValue = offsetValue; }
     
+    public String getMessageKey() { return messageKey; }
+    public void setMessageKey(String messageKey) { this.messageKey = messageKey; }
+    
+    /**
+     * Partition number of the source record, parsed from the "topic-partition" coordinate
+     */
+    public Integer getSourcePartition() {
+        if (topicPartition == null) {
+            return null;
+        }
+        int separator = topicPartition.lastIndexOf('-');
+        try {
+            return separator < 0 ? null : Integer.parseInt(topicPartition.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
     public Long getConsumerLatencyMs() { return consumerLatencyMs; }
     public void setConsumerLatencyMs(Long consumerLatencyMs) { this.consumerLatencyMs = consumerLatencyMs; }
     
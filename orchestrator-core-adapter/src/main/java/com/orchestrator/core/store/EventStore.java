@@ -1,7 +1,10 @@
 package com.orchestrator.core.store;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Database abstraction interface for event storage operations.
@@ -12,6 +15,7 @@ public interface EventStore {
     /**
      * Bulk insert events into the database for optimal performance
      * @param events List of events to insert
+     * @throws DuplicateEventException When the only conflicts are events that already exist
      */
     void bulkInsert(List<Event> events);
     
@@ -30,6 +34,82 @@ public interface EventStore {
      */
     void updateStatus(String eventId, EventStatus status, String errorMessage);
     
+    /**
+     * Update the status of many events in a single round trip
+     * @param eventIds Event identifiers
+     * @param status New status
+     */
+    default void bulkUpdateStatus(List<String> eventIds, EventStatus status) {
+        eventIds.forEach(eventId -> updateStatus(eventId, status));
+    }
+    
+    /**
+     * Atomically lease a batch of RECEIVED events (or PROCESSING events whose lease expired)
+     * for publishing by the outbox relay. Leased events move to PROCESSING, so concurrent
+     * relays on other instances never claim the same rows.
+     * @param leaseOwner Claim token, unique to this claim; settling the events requires it
+     * @param limit Maximum number of events to claim
+     * @param leaseDuration How long the claim is held before other relays may take over
+     * @return Claimed events, oldest first
+     */
+    List<Event> claimPendingEvents(String leaseOwner, int limit, Duration leaseDuration);
+    
+    /**
+     * Mark events claimed by {@link #claimPendingEvents} as SUCCESS and release their lease.
+     * Events whose lease expired and was taken by another claim are left to their new owner.
+     * @param eventIds Event identifiers
+     * @param leaseOwner Claim token the events were claimed with
+     * @return Number of events settled
+     */
+    int completeClaimed(List<String> eventIds, String leaseOwner);
+    
+    /**
+     * Mark an event claimed by {@link #claimPendingEvents} as FAILED and release its lease,
+     * unless the lease has since been taken by another claim
+     * @param eventId Event identifier
+     * @param leaseOwner Claim token the event was claimed with
+     * @param errorMessage Error details
+     * @return True when the claim was still held
+     */
+    boolean failClaimed(String eventId, String leaseOwner, String errorMessage);
+    
+    /**
+     * Page through FAILED events due for redrive, oldest first. Pages continue after the last
+     * event of the previous page (keyset pagination), so a deep page costs the same as the first.
+     * RETRYING events whose lease expired are included, so a redrive cut short is picked up again.
+     * @param after Last event of the previous page; null for the first page
+     * @param dueBy Only events whose next retry is due at or before this instant
+     * @param maxRetries Only events retried fewer times than this
+     * @param limit Page size
+     * @return Failed events ordered by receivedAt and id
+     */
+    List<Event> findFailedEvents(Event after, Instant dueBy, int maxRetries, int limit);
+    
+    /**
+     * Move FAILED events (or RETRYING events whose lease expired) to RETRYING under a lease,
+     * so concurrent redrives on other instances never republish the same event
+     * @param eventIds Events found by findFailedEvents
+     * @param leaseOwner Identifier of the redriving instance
+     * @param leaseDuration How long the claim is held before another redrive may take over
+     * @return Ids of the events this call claimed
+     */
+    List<String> claimFailedEvents(List<String> eventIds, String leaseOwner, Duration leaseDuration);
+    
+    /**
+     * Return claimed events whose republish failed to FAILED, each with its retryCount,
+     * nextRetryAt and errorMessage, and release their lease
+     * @param events Events carrying their updated retry state
+     */
+    void scheduleRetries(List<Event> events);
+    
+    /**
+     * Mark claimed events that were republished as SUCCESS
+     * @param eventIds Event identifiers
+     */
+    default void completeRetries(List<String> eventIds) {
+        bulkUpdateStatus(eventIds, EventStatus.SUCCESS);
+    }
+    
     /**
      * Find events that have been in RECEIVED status longer than threshold
      * @param threshold Duration threshold for stale events
@@ -39,7 +119,7 @@ public interface EventStore {
     
     /**
      * Get count of pending events
-     * @return Number of events in RECEIVED/PROCESSING status
+     * @return Number of events in RECEIVED status
      */
     long countPendingEvents();
     
@@ -55,6 +135,26 @@ public interface EventStore {
      */
     long countProcessedEvents();
     
+    /**
+     * Count events of every status, ideally in a single pass over the table.
+     * Meant for periodic background refreshes, not per-request use.
+     * @return Event count per status; statuses without events may be absent
+     */
+    default Map<EventStatus, Long> countEventsByStatus() {
+        Map<EventStatus, Long> counts = new EnumMap<>(EventStatus.class);
+        counts.put(EventStatus.RECEIVED, countPendingEvents());
+        counts.put(EventStatus.FAILED, countFailedEvents());
+        counts.put(EventStatus.SUCCESS, countProcessedEvents());
+        return counts;
+    }
+    
+    /**
+     * Delete events, with their payloads, whose write was rolled back elsewhere
+     * @param events Events to delete
+     * @return Number of deleted events
+     */
+    int deleteEvents(List<Event> events);
+    
     /**
      * Delete events older than retention period
      * @param retentionPeriod Age threshold for cleanup
@@ -62,6 +162,29 @@ public interface EventStore {
      */
     int cleanupOldEvents(Duration retentionPeriod);
     
+    /**
+     * Delete events older than retention period, stopping once the deadline has passed;
+     * what is left is deleted by the next call
+     * @param retentionPeriod Age threshold for cleanup
+     * @param deadline End of the run's time budget
+     * @return Number of deleted events
+     */
+    default int cleanupOldEvents(Duration retentionPeriod, Instant deadline) {
+        return cleanupOldEvents(retentionPeriod);
+    }
+    
+    /**
+     * Take or renew a named lease shared by every instance, electing the one instance that runs
+     * a maintenance job. Stores without shared leases grant every request, so every instance runs.
+     * @param name Lease name
+     * @param owner Identifier of the requesting instance
+     * @param leaseDuration How long the lease is held unless renewed
+     * @return True when the owner holds the lease for leaseDuration from now
+     */
+    default boolean tryAcquireLease(String name, String owner, Duration leaseDuration) {
+        return true;
+    }
+    
     /**
      * Get count of events exceeding latency threshold
      * @return Number of events with totalLatencyMs > 1000
@@ -0,0 +1,166 @@
+package com.orchestrator.core.store;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for event inserts.
+ * Listener threads hand over their event and wait on the returned future; a single writer
+ * thread collects whatever arrives within the linger time, up to the bulk size, and persists
+ * it with one bulkInsert. Concurrent single-row inserts share one round trip, and each caller
+ * still learns when its own row is durable before it acknowledges the record.
+ * Bulk size and linger come from an {@link AdaptiveBatchController}, which tunes them from
+ * the measured insert latency when adaptive batching is enabled.
+ */
+public class GroupCommitInserter implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitInserter.class);
+    
+    private final EventStore eventStore;
+    private final AdaptiveBatchController controller;
+    private final BlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    
+    private volatile boolean running = true;
+    
+    /**
+     * @param name Pipeline the inserter serves, naming its writer thread and metrics
+     */
+    public GroupCommitInserter(EventStore eventStore, OrchestratorProperties.DatabaseConfig database, MeterRegistry meterRegistry, String name) {
+        this.eventStore = eventStore;
+        this.controller = new AdaptiveBatchController(database, meterRegistry, name);
+        
+        this.batchSizes = DistributionSummary.builder("orchestrator.db.group_commit.batch.size")
+            .description("Events persisted per group-commit insert")
+            .tag("pipeline", name)
+            .register(meterRegistry);
+        
+        this.writer = new Thread(this::run, "orchestrator-group-commit-" + name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Queue an event for the next group insert
+     * @return Completes once the event is persisted, exceptionally if its insert failed
+     */
+    public CompletableFuture<Void> insert(Event event) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Group commit inserter is closed"));
+        }
+        PendingInsert pending = new PendingInsert(event, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.future();
+    }
+    
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>();
+        
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                
+                // Read once per batch; the controller may change them between batches
+                int bulkSize = controller.getBatchSize();
+                long lingerNanos = controller.getLingerNanos();
+                
+                batch.add(first);
+                queue.drainTo(batch, bulkSize - batch.size());
+                
+                // Linger for late arrivals only while the batch has room
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < bulkSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, bulkSize - batch.size());
+                }
+                
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void flush(List<PendingInsert> batch) {
+        batchSizes.record(batch.size());
+        
+        try {
+            long start = System.nanoTime();
+            eventStore.bulkInsert(batch.stream().map(PendingInsert::event).toList());
+            controller.record(batch.size(), System.nanoTime() - start);
+            batch.forEach(pending -> pending.future().complete(null));
+            return;
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                complete(batch.get(0), e);
+                return;
+            }
+            logger.warn("Group insert of {} events failed, retrying them one by one: {}", batch.size(), e.getMessage());
+        }
+        
+        // One bad row should only fail its own caller; events already stored, by this batch or an
+        // earlier delivery of the same record, show up as duplicates
+        for (PendingInsert pending : batch) {
+            try {
+                eventStore.bulkInsert(List.of(pending.event()));
+                pending.future().complete(null);
+            } catch (Exception e) {
+                complete(pending, e);
+            }
+        }
+    }
+    
+    /**
+     * Only a conflict on the event row itself means the event is stored
+     */
+    private static void complete(PendingInsert pending, Exception error) {
+        if (error instanceof DuplicateEventException) {
+            pending.future().complete(null);
+        } else {
+            pending.future().completeExceptionally(error);
+        }
+    }
+    
+    /**
+     * Persists what is already queued, then stops the writer; later inserts fail
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(Duration.ofSeconds(10).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        PendingInsert pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(new IllegalStateException("Group commit inserter is closed"));
+        }
+    }
+    
+    private record PendingInsert(Event event, CompletableFuture<Void> future) {}
+}
@@ -0,0 +1,108 @@
+package com.orchestrator.core.store;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetOutOfRangeException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads source records back from Kafka by topic, partition and offset.
+ * Every seek polls a batch of the records that follow; those are cached, so a relay
+ * working through a backlog in offset order costs about one fetch per poll batch.
+ */
+public class KafkaPayloadFetcher implements AutoCloseable {
+    
+    private final KafkaConsumer<String, String> consumer;
+    private final Duration fetchTimeout;
+    private final Map<RecordPosition, String> cache;
+    
+    public KafkaPayloadFetcher(OrchestratorProperties properties) {
+        OrchestratorProperties.PayloadCodecConfig config = properties.payloadCodec();
+        this.fetchTimeout = config.fetchTimeout();
+        
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.consumer().bootstrapServers());
+        consumerProps.put(ConsumerConfig.CLIENT_ID_CONFIG, "orchestrator-payload-fetcher-" + properties.instanceId());
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "none"); // records past retention must fail, not skip
+        consumerProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, config.fetchCacheSize());
+        this.consumer = new KafkaConsumer<>(consumerProps);
+        
+        int cacheSize = config.fetchCacheSize();
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RecordPosition, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    /**
+     * Value of the record at the given position
+     * @throws IllegalStateException When the record is no longer available or the fetch times out
+     */
+    public synchronized String fetch(String topic, int partition, long offset) {
+        RecordPosition position = new RecordPosition(topic, partition, offset);
+        String cached = cache.remove(position);
+        if (cached != null) {
+            return cached;
+        }
+        
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        consumer.assign(List.of(topicPartition));
+        consumer.seek(topicPartition, offset);
+        
+        long deadline = System.nanoTime() + fetchTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            List<ConsumerRecord<String, String>> records;
+            try {
+                records = consumer.poll(Duration.ofNanos(Math.max(0L, deadline - System.nanoTime()))).records(topicPartition);
+            } catch (OffsetOutOfRangeException e) {
+                throw new IllegalStateException("Record " + position + " is no longer within Kafka retention", e);
+            }
+            
+            String value = null;
+            for (ConsumerRecord<String, String> record : records) {
+                if (record.offset() == offset) {
+                    value = record.value();
+                } else if (record.offset() > offset) {
+                    cache.put(new RecordPosition(topic, partition, record.offset()), record.value());
+                }
+            }
+            if (value != null) {
+                return value;
+            }
+            if (!records.isEmpty()) {
+                // Compacted away, or an aborted transactional record
+                throw new IllegalStateException("Record " + position + " no longer exists in Kafka");
+            }
+        }
+        
+        throw new IllegalStateException("Timed out fetching record " + position + " from Kafka");
+    }
+    
+    @Override
+    public synchronized void close() {
+        consumer.close(Duration.ofSeconds(5));
+    }
+    
+    private record RecordPosition(String topic, int partition, long offset) {
+        
+        @Override
+        public String toString() {
+            return topic + "-" + partition + "@" + offset;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.orchestrator.core.store;
+
+/**
+ * Encoding of event payloads at rest.
+ * Stores given a codec persist the encoded bytes (bytea, BinData) instead of the payload text;
+ * the encoded form is self-describing, so payloads written with other settings still decode.
+ */
+public interface PayloadCodec {
+    
+    /**
+     * Encode the payload of an event
+     * @param event Event whose payload is stored; its source topic may select a dictionary
+     * @return Encoded payload
+     */
+    byte[] encode(Event event);
+    
+    /**
+     * Decode a payload written by {@link #encode(Event)}
+     * @param data Encoded payload
+     * @return Payload text
+     * @throws PayloadUnavailableException When the payload is kept elsewhere and can no longer be read
+     */
+    String decode(byte[] data);
+}
@@ -0,0 +1,16 @@
+package com.orchestrator.core.store;
+
+/**
+ * Thrown when a stored payload can no longer be read back, such as a referenced source record
+ * past Kafka retention. Retrying does not bring it back, so the event is failed with this message.
+ */
+public class PayloadUnavailableException extends RuntimeException {
+    
+    public PayloadUnavailableException(String message) {
+        super(message);
+    }
+    
+    public PayloadUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,96 @@
+package com.orchestrator.core.store;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Stores a pointer to the source record instead of the payload.
+ * The source record stays in Kafka until retention removes it, so the event store only keeps
+ * its coordinates, the payload size and a SHA-256 of the payload for auditing. Reading the
+ * payload seeks to the record and verifies it against the hash; relays and replays therefore
+ * work for as long as the record is retained.
+ * <p>
+ * Layout: format byte, partition, offset, payload size, SHA-256, topic name.
+ * Payloads without source coordinates, and payloads stored under other codec settings,
+ * go through the fallback codec.
+ */
+public class ReferencePayloadCodec implements PayloadCodec, DisposableBean {
+    
+    private static final byte REFERENCE = 3;
+    private static final int HASH_LENGTH = 32;
+    private static final int HEADER_LENGTH = 1 + 4 + 8 + 4 + HASH_LENGTH;
+    
+    private final KafkaPayloadFetcher fetcher;
+    private final PayloadCodec fallback;
+    
+    public ReferencePayloadCodec(KafkaPayloadFetcher fetcher, PayloadCodec fallback) {
+        this.fetcher = fetcher;
+        this.fallback = fallback;
+    }
+    
+    @Override
+    public byte[] encode(Event event) {
+        String topicPartition = event.getTopicPartition();
+        int separator = topicPartition != null ? topicPartition.lastIndexOf('-') : -1;
+        if (separator <= 0 || event.getOffsetValue() == null) {
+            return fallback.encode(event);
+        }
+        
+        byte[] payload = event.getPayload().getBytes(StandardCharsets.UTF_8);
+        byte[] topic = topicPartition.substring(0, separator).getBytes(StandardCharsets.UTF_8);
+        
+        return ByteBuffer.allocate(HEADER_LENGTH + topic.length)
+            .put(REFERENCE)
+            .putInt(Integer.parseInt(topicPartition.substring(separator + 1)))
+            .putLong(event.getOffsetValue())
+            .putInt(payload.length)
+            .put(sha256(payload))
+            .put(topic)
+            .array();
+    }
+    
+    @Override
+    public String decode(byte[] data) {
+        if (data[0] != REFERENCE) {
+            return fallback.decode(data);
+        }
+        
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.get();
+        int partition = buffer.getInt();
+        long offset = buffer.getLong();
+        buffer.getInt(); // payload size, kept for auditing
+        byte[] hash = new byte[HASH_LENGTH];
+        buffer.get(hash);
+        String topic = new String(data, HEADER_LENGTH, data.length - HEADER_LENGTH, StandardCharsets.UTF_8);
+        
+        String payload;
+        try {
+            payload = fetcher.fetch(topic, partition, offset);
+        } catch (IllegalStateException e) {
+            throw new PayloadUnavailableException(e.getMessage(), e);
+        }
+        if (payload == null || !Arrays.equals(hash, sha256(payload.getBytes(StandardCharsets.UTF_8)))) {
+            throw new PayloadUnavailableException("Record " + topic + "-" + partition + "@" + offset + " does not match the stored payload hash");
+        }
+        return payload;
+    }
+    
+    @Override
+    public void destroy() {
+        fetcher.close();
+    }
+    
+    private static byte[] sha256(byte[] payload) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(payload);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -22,6 +22,17 @@ public interface MessageTransformer {
         return input != null && !input.trim().isEmpty();
     }
     
+    /**
+     * Derive the key of the output record. Records sharing a key keep their relative
+     * order downstream, so the default forwards the source key unchanged.
+     * @param sourceKey Key of the consumed record, may be null
+     * @param input Original message payload
+     * @return Output record key, or null to let the producer spread records
+     */
+    default String deriveKey(String sourceKey, String input) {
+        return sourceKey;
+    }
+    
     /**
      * Get transformer name for logging and metrics
      * @return Transformer identifier
@@ -0,0 +1,232 @@
+package com.orchestrator.core.tuning;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.config.ProducerClusterRegistry;
+import com.orchestrator.core.config.ProducerPool;
+import com.orchestrator.core.metrics.ConsumerLagMonitor;
+import com.orchestrator.core.metrics.LatencyTracker;
+import io.micrometer.core.instrument.Gauge;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adaptive producer batching. Samples producer metrics and consumer lag, switches the
+ * pooled producers to large batches and a longer linger while the pipeline is throughput
+ * bound, and back to the configured low-latency settings once load drops.
+ * Separate high/low thresholds plus a number of consecutive confirming samples keep
+ * it from flapping, and linger is never raised above the latency budget.
+ * Producers are never reconfigured in place: each pool slot gets a new producer with the new
+ * settings, and the replaced one is flushed and closed one evaluation later, once sends that
+ * picked it before the swap have long been handed over.
+ */
+public class ProducerBatchTuner implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProducerBatchTuner.class);
+    
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+    
+    enum Mode {
+        LATENCY,
+        THROUGHPUT
+    }
+    
+    private final ProducerClusterRegistry producerClusterRegistry;
+    private final ConsumerLagMonitor lagMonitor;
+    private final OrchestratorProperties.TuningConfig config;
+    
+    private final int latencyBatchSize;
+    private final long latencyLingerMs;
+    private final int throughputBatchSize;
+    private final long throughputLingerMs;
+    
+    private volatile Mode mode = Mode.LATENCY;
+    private int confirmingSamples;
+    private int generation;
+    private final List<KafkaTemplate<String, String>> retiring = new ArrayList<>();
+    
+    public ProducerBatchTuner(
+            ProducerClusterRegistry producerClusterRegistry,
+            ConsumerLagMonitor lagMonitor,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        this.producerClusterRegistry = producerClusterRegistry;
+        this.lagMonitor = lagMonitor;
+        this.config = properties.tuning();
+        this.latencyBatchSize = properties.producer().batchSize();
+        this.latencyLingerMs = properties.producer().lingerMs().toMillis();
+        this.throughputBatchSize = Math.max(config.throughputBatchSize(), latencyBatchSize);
+        this.throughputLingerMs = Math.min(config.throughputLinger().toMillis(), config.latencyBudget().toMillis());
+        
+        Gauge.builder("orchestrator.producer.tuning.mode", this, tuner -> tuner.mode == Mode.THROUGHPUT ? 1 : 0)
+            .description("Producer batching mode: 0 = latency, 1 = throughput")
+            .register(latencyTracker.getMeterRegistry());
+    }
+    
+    @Scheduled(fixedDelayString = "${orchestrator.tuning.interval:PT30S}")
+    public synchronized void evaluate() {
+        retireReplaced();
+        
+        ProducerSample sample = sampleProducers();
+        long lag = lagMonitor.getTotalLag();
+        Mode observed = observeRegime(sample, lag);
+        
+        logger.debug("Producer tuning sample: mode={}, observed={}, lag={}, batchSizeAvg={}, queueTimeAvgMs={}, requestRate={}",
+                    mode, observed, lag, sample.batchSizeAvg(), sample.queueTimeAvgMs(), sample.requestRate());
+        
+        if (sample.queueTimeAvgMs() > config.latencyBudget().toMillis()) {
+            logger.warn("Producer record queue time {}ms exceeds the latency budget of {}ms",
+                       sample.queueTimeAvgMs(), config.latencyBudget().toMillis());
+        }
+        
+        if (observed == mode) {
+            confirmingSamples = 0;
+            return;
+        }
+        
+        if (++confirmingSamples < config.stableIntervals()) {
+            return;
+        }
+        
+        confirmingSamples = 0;
+        apply(observed, sample, lag);
+    }
+    
+    Mode observeRegime(ProducerSample sample, long lag) {
+        if (mode == Mode.LATENCY) {
+            boolean throughputBound = lag >= config.lagHighWatermark()
+                || sample.queueTimeAvgMs() >= config.queueTimeHighMs()
+                || sample.requestRate() >= config.requestRateHigh();
+            return throughputBound ? Mode.THROUGHPUT : Mode.LATENCY;
+        }
+        
+        // Large batches no longer fill up once the backlog is gone
+        boolean lowLoad = lag <= config.lagLowWatermark() && sample.batchSizeAvg() < latencyBatchSize;
+        return lowLoad ? Mode.LATENCY : Mode.THROUGHPUT;
+    }
+    
+    private void apply(Mode target, ProducerSample sample, long lag) {
+        Map<String, Object> settings = target == Mode.THROUGHPUT
+            ? Map.of(ProducerConfig.BATCH_SIZE_CONFIG, throughputBatchSize, ProducerConfig.LINGER_MS_CONFIG, throughputLingerMs)
+            : Map.of(ProducerConfig.BATCH_SIZE_CONFIG, latencyBatchSize, ProducerConfig.LINGER_MS_CONFIG, latencyLingerMs);
+        
+        int rolled = 0;
+        int skipped = 0;
+        generation++;
+        
+        for (ProducerPool pool : producerClusterRegistry.pools()) {
+            List<KafkaTemplate<String, String>> templates = pool.templates();
+            for (int i = 0; i < templates.size(); i++) {
+                ProducerFactory<String, String> factory = templates.get(i).getProducerFactory();
+                
+                // Transactional producers are bound to in-flight listener transactions
+                if (factory.transactionCapable()) {
+                    skipped++;
+                    continue;
+                }
+                
+                // The new slot producer takes over keyed and round-robin sends at once; the old
+                // one keeps its buffered records and is flushed here, then closed next evaluation
+                KafkaTemplate<String, String> replaced = pool.replace(i,
+                    new KafkaTemplate<>(factory.copyWithConfigurationOverride(overrides(factory, settings))));
+                replaced.flush();
+                retiring.add(replaced);
+                rolled++;
+            }
+        }
+        
+        logger.info("Producer batching switched {} -> {} (lag={}, queueTimeAvgMs={}, requestRate={}): {} producers replaced, {} transactional skipped, settings={}",
+                   mode, target, lag, sample.queueTimeAvgMs(), sample.requestRate(), rolled, skipped, settings);
+        mode = target;
+    }
+    
+    /**
+     * Settings plus a client id of its own, so the old and new producer of a slot keep
+     * separate client metrics while both are open
+     */
+    private Map<String, Object> overrides(ProducerFactory<String, String> factory, Map<String, Object> settings) {
+        Map<String, Object> overrides = new HashMap<>(settings);
+        Object clientId = factory.getConfigurationProperties().get(ProducerConfig.CLIENT_ID_CONFIG);
+        if (clientId != null) {
+            overrides.put(ProducerConfig.CLIENT_ID_CONFIG, clientId.toString().replaceFirst("-g\\d+$", "") + "-g" + generation);
+        }
+        return overrides;
+    }
+    
+    /**
+     * Close the producers replaced by the previous switch. Their factories are pool or tuner
+     * copies no longer referenced by any pool, so they are destroyed; the producer factory bean
+     * may still back listener transactions and is left to the container.
+     */
+    private void retireReplaced() {
+        for (KafkaTemplate<String, String> template : retiring) {
+            try {
+                template.flush();
+                if (!producerClusterRegistry.isBeanTemplate(template)
+                        && template.getProducerFactory() instanceof DisposableBean factory) {
+                    factory.destroy();
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to close replaced producer: {}", e.getMessage());
+            }
+        }
+        retiring.clear();
+    }
+    
+    @Override
+    public synchronized void destroy() {
+        retireReplaced();
+    }
+    
+    private ProducerSample sampleProducers() {
+        double batchSizeTotal = 0;
+        double queueTimeTotal = 0;
+        double requestRateTotal = 0;
+        int producers = 0;
+        
+        for (ProducerPool pool : producerClusterRegistry.pools()) {
+            for (KafkaTemplate<String, String> template : pool.templates()) {
+                Map<MetricName, ? extends Metric> metrics = template.metrics();
+                batchSizeTotal += metricValue(metrics, "batch-size-avg");
+                queueTimeTotal += metricValue(metrics, "record-queue-time-avg");
+                requestRateTotal += metricValue(metrics, "request-rate");
+                producers++;
+            }
+        }
+        
+        if (producers == 0) {
+            return new ProducerSample(0, 0, 0);
+        }
+        
+        return new ProducerSample(batchSizeTotal / producers, queueTimeTotal / producers, requestRateTotal / producers);
+    }
+    
+    private static double metricValue(Map<MetricName, ? extends Metric> metrics, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+            if (name.equals(entry.getKey().name()) && PRODUCER_METRICS_GROUP.equals(entry.getKey().group())) {
+                // Averages are NaN until the producer has sent anything
+                if (entry.getValue().metricValue() instanceof Number value && !Double.isNaN(value.doubleValue())) {
+                    return value.doubleValue();
+                }
+                return 0;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Per-producer averages across all pools
+     */
+    record ProducerSample(double batchSizeAvg, double queueTimeAvgMs, double requestRate) {}
+}
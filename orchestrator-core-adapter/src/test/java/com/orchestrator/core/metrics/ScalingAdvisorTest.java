@@ -0,0 +1,71 @@
+package com.orchestrator.core.metrics;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ScalingAdvisorTest {
+    
+    @Test
+    public void sizesForIncomingRateAndBacklogAtConfiguredCapacity() {
+        OrchestratorProperties.ScalingConfig config = config(100, 1, 0);
+        
+        // 250/s incoming plus 3000 records to drain within 30s, at 100/s per replica
+        assertEquals(4, ScalingAdvisor.desiredReplicas(config, 12, 2, 3000, 200, 250));
+        assertEquals(3, ScalingAdvisor.desiredReplicas(config, 12, 2, 0, 200, 250));
+    }
+    
+    @Test
+    public void estimatesCapacityFromObservedRate() {
+        OrchestratorProperties.ScalingConfig config = config(0, 1, 0);
+        
+        // Two replicas committing 400/s handle 200/s each
+        assertEquals(2, ScalingAdvisor.desiredReplicas(config, 12, 2, 0, 400, 400));
+        assertEquals(3, ScalingAdvisor.desiredReplicas(config, 12, 2, 6000, 400, 400));
+    }
+    
+    @Test
+    public void holdsCurrentSizeWithoutObservedThroughput() {
+        OrchestratorProperties.ScalingConfig config = config(0, 1, 0);
+        
+        assertEquals(3, ScalingAdvisor.desiredReplicas(config, 12, 3, 500, 0, 0));
+        assertEquals(1, ScalingAdvisor.desiredReplicas(config, 12, 3, 0, 0, 0));
+    }
+    
+    @Test
+    public void capsAtPartitionsAndMaxReplicas() {
+        assertEquals(12, ScalingAdvisor.desiredReplicas(config(100, 1, 0), 12, 2, 0, 200, 5000));
+        assertEquals(6, ScalingAdvisor.desiredReplicas(config(100, 1, 6), 12, 2, 0, 200, 5000));
+    }
+    
+    @Test
+    public void neverGoesBelowMinReplicas() {
+        OrchestratorProperties.ScalingConfig config = config(100, 4, 0);
+        
+        assertEquals(4, ScalingAdvisor.desiredReplicas(config, 12, 2, 0, 200, 0));
+        // The minimum wins over a smaller partition count
+        assertEquals(4, ScalingAdvisor.desiredReplicas(config, 2, 2, 0, 200, 5000));
+    }
+    
+    @Test
+    public void takesTheMostDemandingPipeline() {
+        ScalingAdvisor.ScalingSnapshot snapshot = ScalingAdvisor.ScalingSnapshot.of(List.of(
+            new ScalingAdvisor.GroupLag("orders", "orders", 12, 2, Map.of(0, 100L), 100, 50, 60, 2.0, 3),
+            new ScalingAdvisor.GroupLag("payments", "payments", 6, 2, Map.of(0, 900L), 900, 30, 30, 30.0, 5)));
+        
+        assertEquals(1000, snapshot.totalLag());
+        assertEquals(30.0, snapshot.lagSeconds());
+        assertEquals(80.0, snapshot.processingRate());
+        assertEquals(5, snapshot.desiredReplicas());
+    }
+    
+    private static OrchestratorProperties.ScalingConfig config(double recordsPerSecondPerReplica, int minReplicas, int maxReplicas) {
+        return new OrchestratorProperties.ScalingConfig(true, null, Duration.ofSeconds(30), recordsPerSecondPerReplica,
+            minReplicas, maxReplicas, null);
+    }
+}
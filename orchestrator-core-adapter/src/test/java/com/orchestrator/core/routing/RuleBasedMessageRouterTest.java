@@ -0,0 +1,125 @@
+package com.orchestrator.core.routing;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.store.Event;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RuleBasedMessageRouterTest {
+    
+    private static final String PRODUCER_TOPIC = "orders-out";
+    
+    private final Event event = new Event("e1", "{}", "orders-0", 1L);
+    
+    @Test
+    public void routesToProducerTopicWithoutRules() {
+        MessageRouter router = router(false);
+        
+        assertEquals(List.of(RouteTarget.of(PRODUCER_TOPIC)), router.route(event, "{}", null));
+    }
+    
+    @Test
+    public void dropsUnmatchedMessagesWhenConfigured() {
+        MessageRouter router = router(true, new OrchestratorProperties.RouteRule("type", null, "refund", "refunds", null));
+        
+        assertTrue(router.route(event, "{}", headers("type", "order")).isEmpty());
+    }
+    
+    @Test
+    public void matchesHeaderValueAndPresence() {
+        MessageRouter router = router(false,
+            new OrchestratorProperties.RouteRule("type", null, "refund", "refunds", null),
+            new OrchestratorProperties.RouteRule("trace", null, null, "traced", "audit"));
+        
+        assertEquals(List.of(RouteTarget.of("refunds")), router.route(event, "{}", headers("type", "refund")));
+        assertEquals(List.of(new RouteTarget("traced", "audit")), router.route(event, "{}", headers("trace", "anything")));
+        assertEquals(List.of(RouteTarget.of(PRODUCER_TOPIC)), router.route(event, "{}", headers("type", "order")));
+        assertEquals(List.of(RouteTarget.of(PRODUCER_TOPIC)), router.route(event, "{}", null));
+    }
+    
+    @Test
+    public void matchesJsonPath() {
+        MessageRouter router = router(false,
+            new OrchestratorProperties.RouteRule(null, "$.order.region", "EU", "orders-eu", null),
+            new OrchestratorProperties.RouteRule(null, "$.items[0].sku", null, "orders-items", null));
+        
+        assertEquals(List.of(RouteTarget.of("orders-eu")),
+            router.route(event, "{\"order\":{\"region\":\"EU\"}}", null));
+        assertEquals(List.of(RouteTarget.of("orders-items")),
+            router.route(event, "{\"order\":{\"region\":\"US\"},\"items\":[{\"sku\":\"A1\"}]}", null));
+        // Object nodes never equal an expected value
+        assertEquals(List.of(RouteTarget.of(PRODUCER_TOPIC)),
+            router.route(event, "{\"order\":{\"region\":{\"code\":\"EU\"}}}", null));
+    }
+    
+    @Test
+    public void collectsEveryMatchingRuleInOrder() {
+        MessageRouter router = router(false,
+            new OrchestratorProperties.RouteRule(null, "$.region", "EU", "orders-eu", null),
+            new OrchestratorProperties.RouteRule("type", null, null, "typed", null),
+            new OrchestratorProperties.RouteRule(null, "$.region", null, "regional", "dr"));
+        
+        assertEquals(List.of(RouteTarget.of("orders-eu"), RouteTarget.of("typed"), new RouteTarget("regional", "dr")),
+            router.route(event, "{\"region\":\"EU\"}", headers("type", "order")));
+    }
+    
+    @Test
+    public void skipsJsonRulesForInvalidJson() {
+        MessageRouter router = router(false,
+            new OrchestratorProperties.RouteRule(null, "$.region", null, "regional", null),
+            new OrchestratorProperties.RouteRule("type", null, null, "typed", null));
+        
+        assertEquals(List.of(RouteTarget.of("typed")), router.route(event, "not json", headers("type", "order")));
+    }
+    
+    @Test
+    public void rejectsRulesWithoutExactlyOneMatcher() {
+        assertThrows(IllegalArgumentException.class,
+            () -> router(false, new OrchestratorProperties.RouteRule("type", "$.type", null, "typed", null)));
+        assertThrows(IllegalArgumentException.class,
+            () -> router(false, new OrchestratorProperties.RouteRule(null, null, null, "typed", null)));
+        assertThrows(IllegalArgumentException.class,
+            () -> router(false, new OrchestratorProperties.RouteRule("type", null, null, " ", null)));
+    }
+    
+    @Test
+    public void rejectsRulesTargetingUndeclaredClusters() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> router(false, new OrchestratorProperties.RouteRule("type", null, null, "typed", "archive")));
+        
+        assertTrue(e.getMessage().contains("archive"));
+    }
+    
+    @Test
+    public void convertsJsonPathToJsonPointer() {
+        assertEquals("/a/b/0/c", RuleBasedMessageRouter.toJsonPointer("$.a.b[0].c").toString());
+        assertEquals("/a~1b", RuleBasedMessageRouter.toJsonPointer("$.a/b").toString());
+        assertEquals("/a/b", RuleBasedMessageRouter.toJsonPointer("/a/b").toString());
+        assertThrows(IllegalArgumentException.class, () -> RuleBasedMessageRouter.toJsonPointer("a.b"));
+    }
+    
+    private static RuleBasedMessageRouter router(boolean dropUnmatched, OrchestratorProperties.RouteRule... rules) {
+        return new RuleBasedMessageRouter(new OrchestratorProperties(
+            null,
+            new OrchestratorProperties.ProducerConfig(PRODUCER_TOPIC, "localhost:9092"),
+            new OrchestratorProperties.DatabaseConfig(),
+            null, null, null, null,
+            new OrchestratorProperties.RoutingConfig(List.of(rules), dropUnmatched,
+                Map.of("audit", "audit:9092", "dr", "dr:9092")),
+            null, null, null, null, null, null, null, null
+        ));
+    }
+    
+    private static Headers headers(String key, String value) {
+        return new RecordHeaders().add(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
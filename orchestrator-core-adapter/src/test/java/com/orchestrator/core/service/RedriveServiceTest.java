@@ -0,0 +1,151 @@
+package com.orchestrator.core.service;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStatus;
+import com.orchestrator.core.store.EventStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RedriveServiceTest {
+    
+    private static final int MAX_RETRIES = 3;
+    
+    private final EventStore eventStore = mock(EventStore.class);
+    private final EventPublisherService publisherService = mock(EventPublisherService.class);
+    
+    @Test
+    public void backoffGrowsExponentiallyUpToTheMaximum() {
+        OrchestratorProperties.RedriveConfig config = new OrchestratorProperties.RedriveConfig(
+            true, null, 0, 0, Duration.ofSeconds(30), Duration.ofMinutes(5), 2.0, null);
+        
+        assertEquals(Duration.ofSeconds(30), config.backoff(0));
+        assertEquals(Duration.ofSeconds(30), config.backoff(1));
+        assertEquals(Duration.ofSeconds(60), config.backoff(2));
+        assertEquals(Duration.ofSeconds(120), config.backoff(3));
+        assertEquals(Duration.ofMinutes(4), config.backoff(4));
+        assertEquals(Duration.ofMinutes(5), config.backoff(5));
+        assertEquals(Duration.ofMinutes(5), config.backoff(40));
+    }
+    
+    @Test
+    public void tokenBucketSendsOneSecondAtOnceThenPaces() throws InterruptedException {
+        RedriveService.TokenBucket bucket = new RedriveService.TokenBucket(20);
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            bucket.acquire();
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(200)) < 0);
+        
+        start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            bucket.acquire();
+        }
+        // Ten more tokens at 20 per second take half a second
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(450)) >= 0);
+    }
+    
+    @Test
+    public void reschedulesFailuresAndExhaustsTheLastRetry() {
+        Event first = failedEvent("e1", "{\"n\":1}", 0);
+        Event last = failedEvent("e2", "{\"n\":2}", MAX_RETRIES - 1);
+        Event recovered = failedEvent("e3", "{\"n\":3}", 1);
+        page(first, last, recovered);
+        when(publisherService.publishEvent(any(Event.class), anyString()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(publisherService.publishEvent(eq(recovered), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        Instant before = Instant.now();
+        RedriveService service = service();
+        service.redrive(Instant.now().plusSeconds(10));
+        
+        List<Event> scheduled = scheduledRetries();
+        assertEquals(List.of(first, last), scheduled);
+        assertEquals(1, first.getRetryCount());
+        assertEquals("broker down", first.getErrorMessage());
+        assertTrue(!first.getNextRetryAt().isBefore(before.plusSeconds(30)));
+        assertEquals(MAX_RETRIES, last.getRetryCount());
+        assertNull(last.getNextRetryAt());
+        verify(eventStore).completeRetries(List.of("e3"));
+        
+        RedriveService.RedriveResult result = service.getLastResult();
+        assertEquals(3, result.claimed());
+        assertEquals(1, result.republished());
+        assertEquals(1, result.rescheduled());
+        assertEquals(1, result.exhausted());
+    }
+    
+    @Test
+    public void failsEventsWhosePayloadIsGoneWithoutRetrying() {
+        Event unreadable = failedEvent("e1", null, 0);
+        unreadable.setPayloadError("Record orders-0@1 is no longer within Kafka retention");
+        page(unreadable);
+        
+        RedriveService service = service();
+        service.redrive(Instant.now().plusSeconds(10));
+        
+        verify(publisherService, never()).publishEvent(any(Event.class), anyString());
+        assertEquals(List.of(unreadable), scheduledRetries());
+        assertEquals(MAX_RETRIES, unreadable.getRetryCount());
+        assertNull(unreadable.getNextRetryAt());
+        assertEquals("Payload of event e1 is unavailable: Record orders-0@1 is no longer within Kafka retention",
+            unreadable.getErrorMessage());
+        assertEquals(1, service.getLastResult().exhausted());
+    }
+    
+    private void page(Event... events) {
+        List<String> ids = List.of(events).stream().map(Event::getId).toList();
+        when(eventStore.findFailedEvents(any(), any(), anyInt(), anyInt())).thenReturn(List.of(events), List.of());
+        when(eventStore.claimFailedEvents(eq(ids), anyString(), any())).thenReturn(ids);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<Event> scheduledRetries() {
+        ArgumentCaptor<List<Event>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventStore).scheduleRetries(captor.capture());
+        return captor.getValue();
+    }
+    
+    private RedriveService service() {
+        OrchestratorProperties properties = new OrchestratorProperties(
+            null,
+            new OrchestratorProperties.ProducerConfig("orders-out", "localhost:9092"),
+            new OrchestratorProperties.DatabaseConfig(
+                OrchestratorProperties.DatabaseStrategy.RELIABLE, null, MAX_RETRIES, null, 0, null, null),
+            null, null, null, null, null, null, null, null, null, null,
+            new OrchestratorProperties.RedriveConfig(true, null, 0, 1000, null, null, 0, null),
+            null,
+            "test"
+        );
+        return new RedriveService(eventStore, publisherService, input -> input, properties,
+            new LatencyTracker(new SimpleMeterRegistry()));
+    }
+    
+    private static Event failedEvent(String id, String payload, int retryCount) {
+        Event event = new Event(id, payload, "orders-0", 1L);
+        event.setStatus(EventStatus.FAILED);
+        event.setRetryCount(retryCount);
+        return event;
+    }
+}
@@ -0,0 +1,113 @@
+package com.orchestrator.core.store;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptiveBatchControllerTest {
+    
+    @Test
+    public void keepsConfiguredSettingsWhenDisabled() {
+        AdaptiveBatchController controller = controller(false, 1);
+        
+        controller.record(200, millis(80));
+        
+        assertEquals(200, controller.getBatchSize());
+        assertEquals(millis(2), controller.getLingerNanos());
+    }
+    
+    @Test
+    public void adjustsOncePerWindow() {
+        AdaptiveBatchController controller = controller(true, 3);
+        
+        controller.record(200, millis(10));
+        controller.record(200, millis(10));
+        assertEquals(200, controller.getBatchSize());
+        
+        controller.record(200, millis(10));
+        assertEquals(250, controller.getBatchSize());
+    }
+    
+    @Test
+    public void halvesWhenOverLatencyTarget() {
+        AdaptiveBatchController controller = controller(true, 1);
+        
+        controller.record(200, millis(80));
+        
+        assertEquals(100, controller.getBatchSize());
+        assertEquals(millis(1), controller.getLingerNanos());
+    }
+    
+    @Test
+    public void leavesDemandBoundWindowsAlone() {
+        AdaptiveBatchController controller = controller(true, 1);
+        
+        controller.record(50, millis(1));
+        
+        assertEquals(200, controller.getBatchSize());
+        assertEquals(millis(2), controller.getLingerNanos());
+    }
+    
+    @Test
+    public void keepsGrowingWhileRateImproves() {
+        AdaptiveBatchController controller = controller(true, 1);
+        
+        controller.record(200, millis(10)); // 20k rows/s, first window steps up
+        assertEquals(250, controller.getBatchSize());
+        assertEquals(2_500_000, controller.getLingerNanos());
+        
+        controller.record(250, millis(10)); // 25k rows/s
+        assertEquals(313, controller.getBatchSize());
+    }
+    
+    @Test
+    public void reversesWhenRateDrops() {
+        AdaptiveBatchController controller = controller(true, 1);
+        
+        controller.record(200, millis(10)); // 20k rows/s
+        controller.record(250, millis(20)); // 12.5k rows/s
+        
+        assertEquals(200, controller.getBatchSize());
+    }
+    
+    @Test
+    public void stepsDownOnPlateau() {
+        AdaptiveBatchController controller = controller(true, 1);
+        
+        controller.record(200, millis(10)); // 20k rows/s
+        controller.record(250, 12_400_000); // within 2% of 20k rows/s
+        
+        assertEquals(200, controller.getBatchSize());
+    }
+    
+    @Test
+    public void staysWithinBounds() {
+        AdaptiveBatchController controller = controller(true, 1);
+        
+        // Full batches in constant time keep improving the rate
+        for (int i = 0; i < 9; i++) {
+            controller.record(controller.getBatchSize(), millis(10));
+        }
+        assertEquals(1000, controller.getBatchSize());
+        
+        for (int i = 0; i < 10; i++) {
+            controller.record(controller.getBatchSize(), millis(80));
+        }
+        assertEquals(10, controller.getBatchSize());
+    }
+    
+    private static AdaptiveBatchController controller(boolean enabled, int window) {
+        OrchestratorProperties.DatabaseConfig database = new OrchestratorProperties.DatabaseConfig(
+            OrchestratorProperties.DatabaseStrategy.LIGHTWEIGHT, null, 3, null, 200, Duration.ofMillis(2),
+            new OrchestratorProperties.AdaptiveBatchConfig(enabled, 10, 1000, Duration.ZERO, Duration.ofMillis(20), Duration.ofMillis(50), window));
+        return new AdaptiveBatchController(database, new SimpleMeterRegistry(), "default");
+    }
+    
+    private static long millis(long millis) {
+        return Duration.ofMillis(millis).toNanos();
+    }
+}
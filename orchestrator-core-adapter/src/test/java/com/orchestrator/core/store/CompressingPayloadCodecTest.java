@@ -0,0 +1,120 @@
+package com.orchestrator.core.store;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressingPayloadCodecTest {
+    
+    @Test
+    public void roundTripsWithLz4() {
+        CompressingPayloadCodec codec = codec(OrchestratorProperties.CompressionAlgorithm.LZ4, Map.of());
+        String payload = order(1).repeat(20);
+        
+        byte[] encoded = codec.encode(event("orders-0", payload));
+        
+        assertEquals(1, encoded[0]);
+        assertTrue(encoded.length < payload.length());
+        assertEquals(payload, codec.decode(encoded));
+        assertTrue(codec.getCompressionRatio() > 1);
+    }
+    
+    @Test
+    public void roundTripsWithZstd() {
+        CompressingPayloadCodec codec = codec(OrchestratorProperties.CompressionAlgorithm.ZSTD, Map.of());
+        String payload = order(1).repeat(20);
+        
+        byte[] encoded = codec.encode(event("orders-0", payload));
+        
+        assertEquals(2, encoded[0]);
+        assertTrue(encoded.length < payload.length());
+        assertEquals(payload, codec.decode(encoded));
+    }
+    
+    @Test
+    public void roundTripsWithTopicDictionary() {
+        byte[] dictionary = trainDictionary();
+        CompressingPayloadCodec codec = codec(OrchestratorProperties.CompressionAlgorithm.ZSTD, Map.of("orders", dictionary));
+        CompressingPayloadCodec plain = codec(OrchestratorProperties.CompressionAlgorithm.ZSTD, Map.of());
+        String payload = order(4711);
+        
+        byte[] withDictionary = codec.encode(event("orders-3", payload));
+        byte[] withoutDictionary = plain.encode(event("orders-3", payload));
+        
+        assertTrue(withDictionary.length < withoutDictionary.length);
+        assertEquals(payload, codec.decode(withDictionary));
+        // Written with a dictionary this codec does not know
+        assertThrows(IllegalStateException.class, () -> plain.decode(withDictionary));
+        // Other topics are compressed without the dictionary
+        assertEquals(payload, plain.decode(codec.encode(event("payments-0", payload))));
+    }
+    
+    @Test
+    public void storesSmallPayloadsUncompressed() {
+        CompressingPayloadCodec codec = codec(OrchestratorProperties.CompressionAlgorithm.ZSTD, Map.of());
+        String payload = "{\"id\":1,\"note\":\"café\"}";
+        
+        byte[] encoded = codec.encode(event("orders-0", payload));
+        
+        assertEquals(0, encoded[0]);
+        assertEquals(payload.getBytes(StandardCharsets.UTF_8).length + 1, encoded.length);
+        assertEquals(payload, codec.decode(encoded));
+    }
+    
+    @Test
+    public void storesIncompressiblePayloadsUncompressed() {
+        CompressingPayloadCodec codec = codec(OrchestratorProperties.CompressionAlgorithm.LZ4, Map.of());
+        StringBuilder noise = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 256; i++) {
+            noise.append((char) ('!' + random.nextInt(90)));
+        }
+        String payload = noise.toString();
+        
+        byte[] encoded = codec.encode(event("orders-0", payload));
+        
+        assertEquals(0, encoded[0]);
+        assertEquals(payload, codec.decode(encoded));
+    }
+    
+    @Test
+    public void rejectsUnknownFormats() {
+        CompressingPayloadCodec codec = codec(OrchestratorProperties.CompressionAlgorithm.ZSTD, Map.of());
+        
+        assertThrows(IllegalStateException.class, () -> codec.decode(new byte[] {9, 0, 0, 0, 1, 0}));
+    }
+    
+    private static CompressingPayloadCodec codec(OrchestratorProperties.CompressionAlgorithm algorithm, Map<String, byte[]> dictionaries) {
+        OrchestratorProperties.PayloadCodecConfig config = new OrchestratorProperties.PayloadCodecConfig(
+            true, OrchestratorProperties.PayloadStorageMode.COMPRESSED, algorithm, 0, 0, null, null, 0);
+        return new CompressingPayloadCodec(config, dictionaries, new LatencyTracker(new SimpleMeterRegistry()));
+    }
+    
+    private static byte[] trainDictionary() {
+        ZstdDictTrainer trainer = new ZstdDictTrainer(1 << 20, 4096);
+        for (int i = 0; i < 2000; i++) {
+            trainer.addSample(order(i).getBytes(StandardCharsets.UTF_8));
+        }
+        return trainer.trainSamples();
+    }
+    
+    private static String order(int id) {
+        return "{\"orderId\":\"ORD-" + id + "\",\"customerId\":\"CUST-" + (id % 97) + "\",\"status\":\"CREATED\","
+            + "\"currency\":\"EUR\",\"amount\":" + (id % 500) + ".95,\"items\":[{\"sku\":\"SKU-" + (id % 13) + "\",\"quantity\":"
+            + (id % 5 + 1) + "}],\"shippingAddress\":{\"country\":\"DE\",\"city\":\"Berlin\"}}";
+    }
+    
+    private static Event event(String topicPartition, String payload) {
+        return new Event("e1", payload, topicPartition, 1L);
+    }
+}
@@ -0,0 +1,158 @@
+package com.orchestrator.core.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CountingEventStoreTest {
+    
+    private final EventStore delegate = mock(EventStore.class);
+    private final CountingEventStore store = new CountingEventStore(delegate);
+    
+    @Test
+    public void countsInsertsAndTransitions() {
+        store.bulkInsert(List.of(event("e1"), event("e2"), slowEvent("e3")));
+        store.updateStatus("e1", EventStatus.SUCCESS);
+        store.updateStatus("e2", EventStatus.FAILED, "boom");
+        
+        assertEquals(1, store.countPendingEvents());
+        assertEquals(1, store.countProcessedEvents());
+        assertEquals(1, store.countFailedEvents());
+        assertEquals(1, store.countSlowEvents());
+    }
+    
+    @Test
+    public void rebasesOnStoreCounts() {
+        store.bulkInsert(List.of(event("e1"), event("e2")));
+        when(delegate.countEventsByStatus()).thenReturn(Map.of(
+            EventStatus.RECEIVED, 10L, EventStatus.SUCCESS, 5L, EventStatus.FAILED, 1L));
+        when(delegate.countSlowEvents()).thenReturn(2L);
+        
+        store.countEventsByStatus();
+        assertEquals(10, store.countPendingEvents());
+        assertEquals(5, store.countProcessedEvents());
+        assertEquals(1, store.countFailedEvents());
+        assertEquals(2, store.countSlowEvents());
+        
+        // Transitions after the rebase apply on top of it
+        store.updateStatus("e1", EventStatus.SUCCESS);
+        assertEquals(9, store.countPendingEvents());
+        assertEquals(6, store.countProcessedEvents());
+    }
+    
+    @Test
+    public void keepsTransitionsMadeWhileTheStoreCounts() {
+        store.bulkInsert(List.of(event("e1")));
+        when(delegate.countEventsByStatus()).thenAnswer(invocation -> {
+            // Settled while the store was counting and not included in its result
+            store.updateStatus("e1", EventStatus.SUCCESS);
+            return Map.of(EventStatus.RECEIVED, 1L, EventStatus.SUCCESS, 5L);
+        });
+        
+        store.countEventsByStatus();
+        
+        assertEquals(6, store.countProcessedEvents());
+        assertEquals(0, store.countPendingEvents());
+    }
+    
+    @Test
+    public void settlesClaimedEventsFromProcessing() {
+        store.bulkInsert(List.of(event("e1"), event("e2"), event("e3")));
+        when(delegate.claimPendingEvents(any(), anyInt(), any())).thenReturn(List.of(event("e1"), event("e2")));
+        
+        store.claimPendingEvents("relay", 10, Duration.ofSeconds(30));
+        assertEquals(1, store.countPendingEvents());
+        
+        store.bulkUpdateStatus(List.of("e1", "e2"), EventStatus.SUCCESS);
+        assertEquals(1, store.countPendingEvents());
+        assertEquals(2, store.countProcessedEvents());
+        
+        // Not claimed, so it leaves RECEIVED
+        store.updateStatus("e3", EventStatus.SUCCESS);
+        assertEquals(0, store.countPendingEvents());
+        assertEquals(3, store.countProcessedEvents());
+    }
+    
+    @Test
+    public void countsOnlyClaimsStillHeld() {
+        store.bulkInsert(List.of(event("e1"), event("e2"), event("e3")));
+        when(delegate.claimPendingEvents(any(), anyInt(), any())).thenReturn(List.of(event("e1"), event("e2"), event("e3")));
+        store.claimPendingEvents("relay:1", 10, Duration.ofSeconds(30));
+        
+        // e2's lease expired and another relay settles it
+        when(delegate.completeClaimed(List.of("e1", "e2"), "relay:1")).thenReturn(1);
+        when(delegate.failClaimed("e3", "relay:1", "boom")).thenReturn(true);
+        store.completeClaimed(List.of("e1", "e2"), "relay:1");
+        store.failClaimed("e3", "relay:1", "boom");
+        
+        assertEquals(0, store.countPendingEvents());
+        assertEquals(1, store.countProcessedEvents());
+        assertEquals(1, store.countFailedEvents());
+    }
+    
+    @Test
+    public void removesDeletedEventsFromTheirStatus() {
+        List<Event> events = List.of(event("e1"), slowEvent("e2"));
+        store.bulkInsert(events);
+        when(delegate.deleteEvents(events)).thenReturn(2);
+        
+        store.deleteEvents(events);
+        
+        assertEquals(0, store.countPendingEvents());
+        assertEquals(0, store.countSlowEvents());
+    }
+    
+    @Test
+    public void movesRedrivenEventsBetweenFailedRetryingAndSuccess() {
+        when(delegate.countEventsByStatus()).thenReturn(Map.of(EventStatus.FAILED, 3L));
+        store.countEventsByStatus();
+        when(delegate.claimFailedEvents(any(), any(), any())).thenReturn(List.of("e1", "e2", "e3"));
+        
+        store.claimFailedEvents(List.of("e1", "e2", "e3"), "redrive", Duration.ofSeconds(30));
+        assertEquals(0, store.countFailedEvents());
+        
+        store.completeRetries(List.of("e1", "e2"));
+        store.scheduleRetries(List.of(event("e3")));
+        assertEquals(1, store.countFailedEvents());
+        assertEquals(2, store.countProcessedEvents());
+    }
+    
+    @Test
+    public void rebasesAfterCleanup() {
+        store.bulkInsert(List.of(event("e1"), event("e2")));
+        store.bulkUpdateStatus(List.of("e1", "e2"), EventStatus.SUCCESS);
+        when(delegate.cleanupOldEvents(any(Duration.class))).thenReturn(2);
+        when(delegate.countEventsByStatus()).thenReturn(Map.of());
+        
+        store.cleanupOldEvents(Duration.ofDays(14));
+        
+        assertEquals(0, store.countProcessedEvents());
+    }
+    
+    @Test
+    public void neverReportsNegativeCounts() {
+        // Inserted by another instance, settled through this one
+        store.updateStatus("e1", EventStatus.SUCCESS);
+        
+        assertEquals(0, store.countPendingEvents());
+        assertEquals(1, store.countProcessedEvents());
+    }
+    
+    private static Event event(String id) {
+        return new Event(id, "{}", "orders-0", 1L);
+    }
+    
+    private static Event slowEvent(String id) {
+        Event event = event(id);
+        event.setTotalLatencyMs(1500L);
+        return event;
+    }
+}
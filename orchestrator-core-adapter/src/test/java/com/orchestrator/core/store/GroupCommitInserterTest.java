@@ -0,0 +1,132 @@
+package com.orchestrator.core.store;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class GroupCommitInserterTest {
+    
+    private final EventStore eventStore = mock(EventStore.class);
+    private final List<List<String>> inserts = new CopyOnWriteArrayList<>();
+    private GroupCommitInserter inserter;
+    
+    @AfterEach
+    public void close() {
+        if (inserter != null) {
+            inserter.close();
+        }
+    }
+    
+    @Test
+    public void persistsQueuedEventsInOneBatch() throws Exception {
+        storeRejecting(List.of(), List.of());
+        inserter = inserter(3);
+        
+        List<CompletableFuture<Void>> futures = List.of(
+            inserter.insert(event("e1")), inserter.insert(event("e2")), inserter.insert(event("e3")));
+        
+        for (CompletableFuture<Void> future : futures) {
+            assertNull(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(List.of("e1", "e2", "e3")), inserts);
+    }
+    
+    @Test
+    public void failsOnlyTheBadEventOfAFailedBatch() throws Exception {
+        storeRejecting(List.of("bad"), List.of());
+        inserter = inserter(3);
+        
+        CompletableFuture<Void> first = inserter.insert(event("e1"));
+        CompletableFuture<Void> bad = inserter.insert(event("bad"));
+        CompletableFuture<Void> last = inserter.insert(event("e2"));
+        
+        assertNull(first.get(5, TimeUnit.SECONDS));
+        assertNull(last.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(List.of(List.of("e1", "bad", "e2"), List.of("e1"), List.of("bad"), List.of("e2")), inserts);
+    }
+    
+    @Test
+    public void treatsDuplicateEventsAsPersisted() throws Exception {
+        storeRejecting(List.of(), List.of("dup"));
+        inserter = inserter(2);
+        
+        CompletableFuture<Void> duplicate = inserter.insert(event("dup"));
+        CompletableFuture<Void> other = inserter.insert(event("e1"));
+        
+        assertNull(duplicate.get(5, TimeUnit.SECONDS));
+        assertNull(other.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("dup", "e1"), List.of("dup"), List.of("e1")), inserts);
+    }
+    
+    @Test
+    public void failsASingleEventBatchWithoutRetrying() {
+        storeRejecting(List.of("bad"), List.of());
+        inserter = inserter(1);
+        
+        CompletableFuture<Void> bad = inserter.insert(event("bad"));
+        
+        assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("bad")), inserts);
+    }
+    
+    @Test
+    public void rejectsInsertsAfterClose() {
+        storeRejecting(List.of(), List.of());
+        inserter = inserter(1);
+        inserter.close();
+        
+        CompletableFuture<Void> late = inserter.insert(event("e1"));
+        
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+    
+    /**
+     * Fails every insert containing a bad id; duplicates fail as DuplicateEventException
+     */
+    @SuppressWarnings("unchecked")
+    private void storeRejecting(List<String> badIds, List<String> duplicateIds) {
+        doAnswer(invocation -> {
+            List<String> ids = ((List<Event>) invocation.getArgument(0)).stream().map(Event::getId).toList();
+            inserts.add(ids);
+            if (ids.stream().anyMatch(badIds::contains)) {
+                throw new IllegalStateException("Insert of " + ids + " failed");
+            }
+            if (ids.stream().anyMatch(duplicateIds::contains)) {
+                throw new DuplicateEventException("Event of " + ids + " already stored", null);
+            }
+            return null;
+        }).when(eventStore).bulkInsert(anyList());
+    }
+    
+    /**
+     * Each batch waits long enough for the whole test's inserts to join it
+     */
+    private GroupCommitInserter inserter(int bulkSize) {
+        OrchestratorProperties.DatabaseConfig database = new OrchestratorProperties.DatabaseConfig(
+            OrchestratorProperties.DatabaseStrategy.RELIABLE, null, 3, null, bulkSize, Duration.ofSeconds(2), null);
+        return new GroupCommitInserter(eventStore, database, new SimpleMeterRegistry(), "default");
+    }
+    
+    private static Event event(String id) {
+        return new Event(id, "{}", "orders-0", 1L);
+    }
+}
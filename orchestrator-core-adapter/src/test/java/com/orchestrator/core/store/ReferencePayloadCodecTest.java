@@ -0,0 +1,80 @@
+package com.orchestrator.core.store;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReferencePayloadCodecTest {
+    
+    private static final String PAYLOAD = "{\"orderId\":\"ORD-1\",\"amount\":12.50}".repeat(10);
+    
+    private final KafkaPayloadFetcher fetcher = mock(KafkaPayloadFetcher.class);
+    private final ReferencePayloadCodec codec = new ReferencePayloadCodec(fetcher, new CompressingPayloadCodec(
+        new OrchestratorProperties.PayloadCodecConfig(true, OrchestratorProperties.PayloadStorageMode.REFERENCE,
+            OrchestratorProperties.CompressionAlgorithm.LZ4, 0, 0, null, null, 0),
+        Map.of(), new LatencyTracker(new SimpleMeterRegistry())));
+    
+    @Test
+    public void roundTripsThroughTheSourceRecord() {
+        when(fetcher.fetch("orders-eu", 3, 42L)).thenReturn(PAYLOAD);
+        
+        byte[] encoded = codec.encode(event("orders-eu-3", 42L, PAYLOAD));
+        
+        assertEquals(3, encoded[0]);
+        assertTrue(encoded.length < PAYLOAD.length());
+        assertEquals(PAYLOAD, codec.decode(encoded));
+    }
+    
+    @Test
+    public void storesEventsWithoutSourceCoordinatesThroughTheFallback() {
+        byte[] encoded = codec.encode(event(null, null, PAYLOAD));
+        
+        assertEquals(1, encoded[0]);
+        assertEquals(PAYLOAD, codec.decode(encoded));
+        verify(fetcher, never()).fetch(anyString(), anyInt(), anyLong());
+    }
+    
+    @Test
+    public void failsWhenTheRecordNoLongerMatches() {
+        when(fetcher.fetch("orders", 0, 7L)).thenReturn(PAYLOAD + " ");
+        byte[] encoded = codec.encode(event("orders-0", 7L, PAYLOAD));
+        
+        PayloadUnavailableException failure = assertThrows(PayloadUnavailableException.class, () -> codec.decode(encoded));
+        assertEquals("Record orders-0@7 does not match the stored payload hash", failure.getMessage());
+    }
+    
+    @Test
+    public void failsWhenTheRecordIsPastRetention() {
+        when(fetcher.fetch("orders", 0, 7L))
+            .thenThrow(new IllegalStateException("Record orders-0@7 is no longer within Kafka retention"));
+        byte[] encoded = codec.encode(event("orders-0", 7L, PAYLOAD));
+        
+        PayloadUnavailableException failure = assertThrows(PayloadUnavailableException.class, () -> codec.decode(encoded));
+        assertEquals("Record orders-0@7 is no longer within Kafka retention", failure.getMessage());
+    }
+    
+    @Test
+    public void closesTheFetcher() {
+        codec.destroy();
+        
+        verify(fetcher).close();
+    }
+    
+    private static Event event(String topicPartition, Long offset, String payload) {
+        return new Event("e1", payload, topicPartition, offset);
+    }
+}
@@ -0,0 +1,164 @@
+package com.orchestrator.core.tuning;
+
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.config.ProducerClusterRegistry;
+import com.orchestrator.core.config.ProducerPool;
+import com.orchestrator.core.metrics.ConsumerLagMonitor;
+import com.orchestrator.core.metrics.LatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class ProducerBatchTunerTest {
+    
+    private static final long LAG_HIGH = 10_000;
+    private static final long LAG_LOW = 1_000;
+    
+    private final ConsumerLagMonitor lagMonitor = mock(ConsumerLagMonitor.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Map<String, Object>> overrides = new CopyOnWriteArrayList<>();
+    private final ProducerFactory<String, String> factory = factory("orders-producer-0", false);
+    private final ProducerPool pool = new ProducerPool(List.of(new KafkaTemplate<>(factory)));
+    private final ProducerBatchTuner tuner = tuner(pool);
+    
+    @Test
+    public void switchesToThroughputAfterEnoughConfirmingSamples() {
+        evaluate(LAG_HIGH, 2);
+        assertEquals(0, mode());
+        assertEquals(List.of(), overrides);
+        
+        evaluate(LAG_HIGH, 1);
+        assertEquals(1, mode());
+        assertEquals(List.of(Map.of(
+            ProducerConfig.BATCH_SIZE_CONFIG, 262144,
+            ProducerConfig.LINGER_MS_CONFIG, 20L,
+            ProducerConfig.CLIENT_ID_CONFIG, "orders-producer-0-g1")), overrides);
+    }
+    
+    @Test
+    public void restartsTheStreakOnAContradictingSample() {
+        evaluate(LAG_HIGH, 2);
+        evaluate(0, 1);
+        evaluate(LAG_HIGH, 2);
+        
+        assertEquals(0, mode());
+        assertEquals(List.of(), overrides);
+    }
+    
+    @Test
+    public void holdsThroughputBetweenTheWatermarks() {
+        evaluate(LAG_HIGH, 3);
+        assertEquals(1, mode());
+        
+        // Below the high watermark but above the low one
+        evaluate(LAG_LOW + 1, 5);
+        assertEquals(1, mode());
+        
+        evaluate(LAG_LOW, 3);
+        assertEquals(0, mode());
+        assertEquals(Map.of(
+            ProducerConfig.BATCH_SIZE_CONFIG, 65536,
+            ProducerConfig.LINGER_MS_CONFIG, 1L,
+            ProducerConfig.CLIENT_ID_CONFIG, "orders-producer-0-g2"), overrides.get(1));
+    }
+    
+    @Test
+    public void closesReplacedProducersOneEvaluationLater() throws Exception {
+        KafkaTemplate<String, String> original = pool.templates().get(0);
+        
+        evaluate(LAG_HIGH, 3);
+        assertNotSame(original, pool.templates().get(0));
+        ProducerFactory<String, String> copy = pool.templates().get(0).getProducerFactory();
+        
+        // The original is the bean template, whose factory the container closes
+        evaluate(LAG_HIGH, 1);
+        verify((DisposableBean) factory, never()).destroy();
+        verify(factory, never()).reset();
+        
+        evaluate(LAG_LOW, 3);
+        verify((DisposableBean) copy, never()).destroy();
+        
+        evaluate(LAG_LOW, 1);
+        verify((DisposableBean) copy).destroy();
+    }
+    
+    @Test
+    public void skipsTransactionalProducers() {
+        ProducerFactory<String, String> transactional = factory("orders-producer-tx", true);
+        KafkaTemplate<String, String> original = new KafkaTemplate<>(transactional);
+        // As KafkaConfig builds them, so metrics can be read outside a transaction
+        original.setAllowNonTransactional(true);
+        ProducerPool transactionalPool = new ProducerPool(List.of(original));
+        ProducerBatchTuner transactionalTuner = tuner(transactionalPool);
+        
+        when(lagMonitor.getTotalLag()).thenReturn(LAG_HIGH);
+        for (int i = 0; i < 3; i++) {
+            transactionalTuner.evaluate();
+        }
+        
+        assertSame(original, transactionalPool.templates().get(0));
+        assertEquals(List.of(), overrides);
+    }
+    
+    private void evaluate(long lag, int times) {
+        when(lagMonitor.getTotalLag()).thenReturn(lag);
+        for (int i = 0; i < times; i++) {
+            tuner.evaluate();
+        }
+    }
+    
+    private double mode() {
+        return meterRegistry.get("orchestrator.producer.tuning.mode").gauge().value();
+    }
+    
+    private ProducerBatchTuner tuner(ProducerPool producerPool) {
+        OrchestratorProperties properties = new OrchestratorProperties(
+            null,
+            new OrchestratorProperties.ProducerConfig("orders-out", "localhost:9092"),
+            new OrchestratorProperties.DatabaseConfig(),
+            null, null, null, null, null, null,
+            new OrchestratorProperties.TuningConfig(true, null, 0, null, null, LAG_HIGH, LAG_LOW, 0, 0, 3),
+            null, null, null, null, null, null
+        );
+        return new ProducerBatchTuner(new ProducerClusterRegistry(producerPool, Map.of()), lagMonitor, properties,
+            new LatencyTracker(meterRegistry));
+    }
+    
+    /**
+     * Factory of mock producers without metrics; copies record their overrides
+     */
+    @SuppressWarnings("unchecked")
+    private ProducerFactory<String, String> factory(String clientId, boolean transactional) {
+        ProducerFactory<String, String> producerFactory = mock(ProducerFactory.class, withSettings().extraInterfaces(DisposableBean.class));
+        when(producerFactory.transactionCapable()).thenReturn(transactional);
+        when(producerFactory.getConfigurationProperties()).thenReturn(Map.of(ProducerConfig.CLIENT_ID_CONFIG, clientId));
+        when(producerFactory.createProducer()).thenAnswer(invocation -> mock(Producer.class));
+        when(producerFactory.createNonTransactionalProducer()).thenAnswer(invocation -> mock(Producer.class));
+        when(producerFactory.getPhysicalCloseTimeout()).thenReturn(Duration.ofSeconds(1));
+        when(producerFactory.copyWithConfigurationOverride(anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> override = invocation.getArgument(0);
+            overrides.add(override);
+            return factory((String) override.get(ProducerConfig.CLIENT_ID_CONFIG), transactional);
+        });
+        return producerFactory;
+    }
+}
@@ -1,21 +1,75 @@
 package com.orchestrator.mongo.config;
 
+import com.orchestrator.core.config.OrchestratorCoreAutoConfiguration;
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.service.EventPublisherService;
+import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.store.PayloadCodec;
+import com.orchestrator.core.transformer.MessageTransformer;
+import com.orchestrator.mongo.controller.MongoIndexController;
+import com.orchestrator.mongo.service.ChangeStreamOutboxRelay;
 import com.orchestrator.mongo.store.MongoEventStore;
+import com.orchestrator.mongo.store.MongoIndexManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
 /**
  * Auto-configuration for MongoDB-specific EventStore implementation
  */
-@AutoConfiguration(after = MongoDataAutoConfiguration.class)
+@AutoConfiguration(after = MongoDataAutoConfiguration.class, before = OrchestratorCoreAutoConfiguration.class)
+@EnableConfigurationProperties(MongoStoreProperties.class)
 public class MongoAdapterAutoConfiguration {
     
     @Bean
     @ConditionalOnClass(MongoTemplate.class)
-    public MongoEventStore mongoEventStore(MongoTemplate mongoTemplate) {
-        return new MongoEventStore(mongoTemplate);
+    public MongoEventStore mongoEventStore(
+            MongoTemplate mongoTemplate,
+            MongoStoreProperties properties,
+            ObjectProvider<PayloadCodec> payloadCodec,
+            ObjectProvider<OrchestratorProperties> orchestratorProperties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        OrchestratorProperties orchestrator = orchestratorProperties.getIfAvailable();
+        // Events are only ever expired when retention is switched on, TTL index or not
+        boolean retentionEnabled = orchestrator != null && orchestrator.maintenance().retentionEnabled();
+        return new MongoEventStore(mongoTemplate, properties, payloadCodec.getIfAvailable(),
+            retentionEnabled ? orchestrator.database().retentionPeriod() : null,
+            meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+    
+    @Bean
+    @ConditionalOnClass(MongoTemplate.class)
+    public MongoIndexManager mongoIndexManager(MongoTemplate mongoTemplate, MongoStoreProperties properties) {
+        return new MongoIndexManager(mongoTemplate, properties);
+    }
+    
+    @Bean
+    @ConditionalOnClass(MongoTemplate.class)
+    public MongoIndexController mongoIndexController(MongoIndexManager indexManager) {
+        return new MongoIndexController(indexManager);
+    }
+    
+    /**
+     * Replaces the polling outbox relay; registered before the core configuration looks for one
+     */
+    @Bean
+    @ConditionalOnClass(MongoTemplate.class)
+    @ConditionalOnProperty(value = {"orchestrator.outbox.relay-enabled", "orchestrator.mongo.change-stream-relay"}, havingValue = "true")
+    public ChangeStreamOutboxRelay changeStreamOutboxRelay(
+            EventStore eventStore,
+            MongoTemplate mongoTemplate,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        return new ChangeStreamOutboxRelay(eventStore, mongoTemplate, publisherService, messageTransformer, properties, latencyTracker);
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.orchestrator.mongo.config;
+
+import com.mongodb.WriteConcern;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoDB adapter settings
+ * @param schemaLayout Whether payloads are stored in the event document or in a separate collection
+ * @param payloadCollection Collection holding the payloads in the SPLIT layout
+ * @param payloadCompressor WiredTiger block compressor for a newly created payload collection (snappy, zlib or zstd)
+ * @param retention How events older than the retention period are removed once orchestrator.maintenance.retention-enabled is set
+ * @param bucketPayloads Write SPLIT layout payloads to one collection per UTC day, dropped whole once expired
+ * @param manageIndexes Create the events index set in the background at startup
+ * @param writeConcerns Write concern per kind of write
+ * @param changeStreamRelay Relay the outbox from a change stream instead of polling; needs a replica set
+ * @param shardKey Shard key the events collection is sharded on when connected through mongos
+ */
+@ConfigurationProperties(prefix = "orchestrator.mongo")
+public record MongoStoreProperties(
+    SchemaLayout schemaLayout,
+    String payloadCollection,
+    String payloadCompressor,
+    RetentionMode retention,
+    boolean bucketPayloads,
+    Boolean manageIndexes,
+    WriteConcerns writeConcerns,
+    boolean changeStreamRelay,
+    ShardKey shardKey
+) {
+    
+    public MongoStoreProperties {
+        if (schemaLayout == null) schemaLayout = SchemaLayout.SINGLE;
+        if (payloadCollection == null) payloadCollection = "event_payloads";
+        if (payloadCompressor != null && !List.of("none", "snappy", "zlib", "zstd").contains(payloadCompressor)) {
+            throw new IllegalArgumentException("orchestrator.mongo.payload-compressor must be none, snappy, zlib or zstd: " + payloadCompressor);
+        }
+        if (retention == null) retention = RetentionMode.TTL;
+        if (manageIndexes == null) manageIndexes = true;
+        if (writeConcerns == null) writeConcerns = new WriteConcerns(null, null, null);
+        if (shardKey == null) shardKey = ShardKey.NONE;
+        if (bucketPayloads && schemaLayout != SchemaLayout.SPLIT) {
+            throw new IllegalArgumentException("orchestrator.mongo.bucket-payloads requires schema-layout SPLIT");
+        }
+    }
+    
+    /**
+     * The event store is shared by pipelines of every strategy, so write concerns are chosen by
+     * the kind of write each strategy issues rather than by the strategy itself
+     * @param insert Events inserted before publishing (OUTBOX, RELIABLE); the record a replay relies on
+     * @param failureLog Events inserted already FAILED (LIGHTWEIGHT failure log)
+     * @param statusUpdate Status updates and outbox lease claims
+     */
+    public record WriteConcerns(
+        WriteConcernProfile insert,
+        WriteConcernProfile failureLog,
+        WriteConcernProfile statusUpdate
+    ) {
+        public WriteConcerns {
+            if (insert == null) insert = new WriteConcernProfile("majority", true, null);
+            if (failureLog == null) failureLog = new WriteConcernProfile("1", false, null);
+            if (statusUpdate == null) statusUpdate = new WriteConcernProfile("1", false, null); // a lost update is redone by the relay or redrive
+        }
+    }
+    
+    /**
+     * @param w Acknowledging members: a number, "majority" or a tag set name
+     * @param journal Wait for the journal commit; server default when null
+     * @param timeout Acknowledgement timeout; none when null
+     */
+    public record WriteConcernProfile(
+        String w,
+        Boolean journal,
+        Duration timeout
+    ) {
+        public WriteConcernProfile {
+            if (w == null) w = "1";
+        }
+        
+        public WriteConcern toWriteConcern() {
+            WriteConcern writeConcern = w.chars().allMatch(Character::isDigit) ? new WriteConcern(Integer.parseInt(w)) : new WriteConcern(w);
+            if (journal != null) {
+                writeConcern = writeConcern.withJournal(journal);
+            }
+            if (timeout != null) {
+                writeConcern = writeConcern.withWTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return writeConcern;
+        }
+        
+        @Override
+        public String toString() {
+            return "w=" + w + (journal != null ? ",j=" + journal : "");
+        }
+    }
+    
+    public enum SchemaLayout {
+        SINGLE, // Payload stored in the event document
+        SPLIT   // Payload written once to the payload collection; events only holds status and timing
+    }
+    
+    public enum RetentionMode {
+        TTL,  // TTL index on createdAt; the server expires documents in the background
+        SWEEP // cleanupOldEvents deletes expired documents with one remove per collection
+    }
+    
+    public enum ShardKey {
+        NONE,                  // Collection left unsharded
+        HASHED_ID,             // {_id: hashed}; inserts spread evenly and every lookup by id reaches one shard
+        TOPIC_PARTITION_OFFSET // {topicPartition, offsetValue}; a partition's events stay on one shard, swept per shard
+    }
+}
@@ -0,0 +1,35 @@
+package com.orchestrator.mongo.controller;
+
+import com.orchestrator.mongo.store.MongoIndexManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller exposing MongoDB index usage
+ */
+@RestController
+@RequestMapping("/api/mongo")
+public class MongoIndexController {
+    
+    private final MongoIndexManager indexManager;
+    
+    public MongoIndexController(MongoIndexManager indexManager) {
+        this.indexManager = indexManager;
+    }
+    
+    /**
+     * Operations served per index since the last server restart; indexes with no operations
+     * only cost write time
+     */
+    @GetMapping("/indexes")
+    public Map<String, Object> getIndexUsage() {
+        return Map.of(
+            "provisioned", indexManager.isProvisioned(),
+            "collections", indexManager.indexUsage(),
+            "timestamp", System.currentTimeMillis()
+        );
+    }
+}
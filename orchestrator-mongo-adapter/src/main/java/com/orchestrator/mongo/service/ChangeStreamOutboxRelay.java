@@ -0,0 +1,208 @@
+package com.orchestrator.mongo.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.orchestrator.core.config.OrchestratorProperties;
+import com.orchestrator.core.metrics.LatencyTracker;
+import com.orchestrator.core.service.EventPublisherService;
+import com.orchestrator.core.service.OutboxRelayService;
+import com.orchestrator.core.store.CountingEventStore;
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.transformer.MessageTransformer;
+import com.orchestrator.mongo.store.MongoEventStore;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox relay driven by a change stream on the events collection instead of polling.
+ * Inserted RECEIVED events arrive with the change event; whatever the server has already sent
+ * is leased and published as one micro-batch, so a new row is relayed within a round trip of
+ * its insert. Leases keep pods that see the same change events from publishing an event twice.
+ * <p>
+ * The resume token is saved about once a second, so a restart resumes where the stream left
+ * off; events seen again after a restart are no longer claimable and are skipped. A claim
+ * sweep at startup and once per lease duration picks up expired leases and anything inserted
+ * while no stream was open, including after the oplog no longer holds the resume point.
+ */
+public class ChangeStreamOutboxRelay extends OutboxRelayService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamOutboxRelay.class);
+    
+    private static final String STATE_COLLECTION = "outbox_relay_state";
+    private static final String STATE_ID = "change-stream-relay";
+    private static final Duration MAX_AWAIT = Duration.ofMillis(500);
+    private static final Duration TOKEN_SAVE_INTERVAL = Duration.ofSeconds(1);
+    private static final Set<Integer> HISTORY_LOST = Set.of(136, 280, 286); // CappedPositionLost, ChangeStreamFatalError, ChangeStreamHistoryLost
+    
+    private final MongoEventStore mongoEventStore;
+    private final MongoCollection<Document> stateCollection;
+    private final OrchestratorProperties.OutboxConfig config;
+    private final String leaseOwner;
+    
+    private volatile boolean running;
+    private Thread relayThread;
+    
+    public ChangeStreamOutboxRelay(
+            EventStore eventStore,
+            MongoTemplate mongoTemplate,
+            EventPublisherService publisherService,
+            MessageTransformer messageTransformer,
+            OrchestratorProperties properties,
+            LatencyTracker latencyTracker) {
+        super(eventStore, publisherService, messageTransformer, properties, latencyTracker);
+        
+        EventStore store = eventStore instanceof CountingEventStore counting ? counting.getDelegate() : eventStore;
+        if (!(store instanceof MongoEventStore mongoStore)) {
+            throw new IllegalStateException("Change stream outbox relay requires the MongoDB event store");
+        }
+        this.mongoEventStore = mongoStore;
+        this.stateCollection = mongoTemplate.getCollection(STATE_COLLECTION);
+        this.config = properties.outbox();
+        this.leaseOwner = properties.instanceId();
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        relayThread = new Thread(this::relayLoop, "outbox-change-stream-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+        logger.info("Change stream outbox relay started: owner={}, batchSize={}, lease={}",
+                   leaseOwner, config.batchSize(), config.leaseDuration());
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (relayThread != null) {
+            try {
+                // The stream notices within one await period; a batch in flight may take the publish timeout
+                relayThread.join(MAX_AWAIT.plus(config.publishTimeout()).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Change stream outbox relay stopped: owner={}", leaseOwner);
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void relayLoop() {
+        while (running) {
+            try {
+                sweep();
+                tail();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (MongoCommandException e) {
+                if (HISTORY_LOST.contains(e.getErrorCode())) {
+                    // Resume point is gone from the oplog; the sweep covers the gap
+                    logger.warn("Outbox change stream cannot resume ({}), starting from now", e.getErrorCodeName());
+                    stateCollection.deleteOne(Filters.eq("_id", STATE_ID));
+                } else {
+                    logger.error("OUTBOX RELAY ERROR: {}", e.getMessage(), e);
+                    sleepQuietly();
+                }
+            } catch (Exception e) {
+                logger.error("OUTBOX RELAY ERROR: {}", e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+    }
+    
+    /**
+     * Relay claimable events until none are left
+     */
+    private void sweep() throws InterruptedException {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (running && relayed >= config.batchSize());
+    }
+    
+    private void tail() throws InterruptedException {
+        var stream = mongoEventStore.watchReceivedInserts().maxAwaitTime(MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS);
+        BsonDocument savedToken = loadResumeToken();
+        if (savedToken != null) {
+            stream = stream.resumeAfter(savedToken);
+        }
+        
+        long nextSweep = System.nanoTime() + config.leaseDuration().toNanos();
+        long nextTokenSave = System.nanoTime();
+        
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Event>> cursor = stream.cursor()) {
+            while (running) {
+                ChangeStreamDocument<Event> change = cursor.tryNext();
+                if (change != null) {
+                    // Only what the server already sent, so the batch never waits for more inserts
+                    List<Event> inserted = new ArrayList<>();
+                    inserted.add(change.getFullDocument());
+                    while (inserted.size() < config.batchSize() && cursor.available() > 0) {
+                        inserted.add(cursor.next().getFullDocument());
+                    }
+                    
+                    String claimToken = newClaimToken();
+                    List<Event> claimed = mongoEventStore.claimEvents(inserted, claimToken, config.leaseDuration());
+                    if (!claimed.isEmpty()) {
+                        publishClaimed(claimed, claimToken);
+                    }
+                }
+                
+                // Idle getMores advance the token too, so a quiet stream still resumes near the end
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null && !token.equals(savedToken) && System.nanoTime() >= nextTokenSave) {
+                    saveResumeToken(token);
+                    savedToken = token;
+                    nextTokenSave = System.nanoTime() + TOKEN_SAVE_INTERVAL.toNanos();
+                }
+                
+                if (System.nanoTime() >= nextSweep) {
+                    sweep();
+                    nextSweep = System.nanoTime() + config.leaseDuration().toNanos();
+                }
+            }
+        }
+    }
+    
+    private BsonDocument loadResumeToken() {
+        Document state = stateCollection.find(Filters.eq("_id", STATE_ID)).first();
+        return state != null && state.get("resumeToken") instanceof Document token ? token.toBsonDocument() : null;
+    }
+    
+    private void saveResumeToken(BsonDocument token) {
+        stateCollection.replaceOne(
+            Filters.eq("_id", STATE_ID),
+            new Document("_id", STATE_ID)
+                .append("resumeToken", token)
+                .append("owner", leaseOwner)
+                .append("updatedAt", new Date()),
+            new ReplaceOptions().upsert(true));
+    }
+    
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(config.pollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.orchestrator.mongo.store;
+
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStatus;
+import com.orchestrator.core.store.PayloadCodec;
+import com.orchestrator.core.store.PayloadUnavailableException;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+/**
+ * BSON codec for event documents.
+ * Writes and reads fields by fixed name without the reflection and type conversion of
+ * MappingMongoConverter. The layout matches what the converter produces, minus the _class
+ * hint, so documents written by either remain readable by both. Null fields are omitted and
+ * unknown fields (leaseOwner, leaseExpiresAt) are skipped on read.
+ */
+public class EventCodec implements Codec<Event> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventCodec.class);
+    
+    private final PayloadCodec payloadCodec;
+    private final boolean writePayload;
+    
+    /**
+     * @param payloadCodec Encodes payloads into payloadData; plain strings when null
+     * @param writePayload False when payloads live in a separate collection
+     */
+    public EventCodec(PayloadCodec payloadCodec, boolean writePayload) {
+        this.payloadCodec = payloadCodec;
+        this.writePayload = writePayload;
+    }
+    
+    @Override
+    public void encode(BsonWriter writer, Event event, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writeString(writer, "_id", event.getId());
+        if (writePayload && event.getPayload() != null) {
+            if (payloadCodec != null) {
+                writer.writeBinaryData("payloadData", new BsonBinary(payloadCodec.encode(event)));
+            } else {
+                writer.writeString("payload", event.getPayload());
+            }
+        }
+        writeString(writer, "sourceTopicPartition", event.getSourceTopicPartition());
+        writeLong(writer, "offset", event.getOffset());
+        writeInstant(writer, "receivedAt", event.getReceivedAt());
+        writeString(writer, "topicPartition", event.getTopicPartition());
+        writeLong(writer, "offsetValue", event.getOffsetValue());
+        writeString(writer, "messageKey", event.getMessageKey());
+        writeLong(writer, "consumerLatencyMs", event.getConsumerLatencyMs());
+        writeLong(writer, "processingLatencyMs", event.getProcessingLatencyMs());
+        writeLong(writer, "publishingLatencyMs", event.getPublishingLatencyMs());
+        if (event.getStatus() != null) {
+            writer.writeString("status", event.getStatus().name());
+        }
+        writeInstant(writer, "createdAt", event.getCreatedAt());
+        writeInstant(writer, "updatedAt", event.getUpdatedAt());
+        writeString(writer, "errorMessage", event.getErrorMessage());
+        writer.writeInt32("retryCount", event.getRetryCount());
+        writeInstant(writer, "nextRetryAt", event.getNextRetryAt());
+        writeLong(writer, "sendTimestampNs", event.getSendTimestampNs());
+        writeInstant(writer, "receivedAtOrchestrator", event.getReceivedAtOrchestrator());
+        writeInstant(writer, "processedAt", event.getProcessedAt());
+        writeInstant(writer, "publishedAt", event.getPublishedAt());
+        writeLong(writer, "totalLatencyMs", event.getTotalLatencyMs());
+        if (event.getExceededOneSecond() != null) {
+            writer.writeBoolean("exceededOneSecond", event.getExceededOneSecond());
+        }
+        writer.writeEndDocument();
+    }
+    
+    @Override
+    public Event decode(BsonReader reader, DecoderContext decoderContext) {
+        Event event = new Event();
+        Instant updatedAt = null;
+        byte[] payloadData = null;
+        
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                continue;
+            }
+            
+            switch (name) {
+                case "_id" -> event.setId(reader.getCurrentBsonType() == BsonType.OBJECT_ID ? reader.readObjectId().toHexString() : reader.readString());
+                case "payload" -> event.setPayload(reader.readString());
+                case "payloadData" -> payloadData = reader.readBinaryData().getData();
+                case "sourceTopicPartition" -> event.setSourceTopicPartition(reader.readString());
+                case "offset" -> event.setOffset(readLong(reader));
+                case "receivedAt" -> event.setReceivedAt(readInstant(reader));
+                case "topicPartition" -> event.setTopicPartition(reader.readString());
+                case "offsetValue" -> event.setOffsetValue(readLong(reader));
+                case "messageKey" -> event.setMessageKey(reader.readString());
+                case "consumerLatencyMs" -> event.setConsumerLatencyMs(readLong(reader));
+                case "processingLatencyMs" -> event.setProcessingLatencyMs(readLong(reader));
+                case "publishingLatencyMs" -> event.setPublishingLatencyMs(readLong(reader));
+                case "status" -> event.setStatus(EventStatus.valueOf(reader.readString()));
+                case "createdAt" -> event.setCreatedAt(readInstant(reader));
+                case "updatedAt" -> updatedAt = readInstant(reader);
+                case "errorMessage" -> event.setErrorMessage(reader.readString());
+                case "retryCount" -> event.setRetryCount(readLong(reader).intValue());
+                case "nextRetryAt" -> event.setNextRetryAt(readInstant(reader));
+                case "sendTimestampNs" -> event.setSendTimestampNs(readLong(reader));
+                case "receivedAtOrchestrator" -> event.setReceivedAtOrchestrator(readInstant(reader));
+                case "processedAt" -> event.setProcessedAt(readInstant(reader));
+                case "publishedAt" -> event.setPublishedAt(readInstant(reader));
+                case "totalLatencyMs" -> event.setTotalLatencyMs(readLong(reader));
+                case "exceededOneSecond" -> event.setExceededOneSecond(reader.readBoolean());
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        
+        // setStatus stamps updatedAt, so the stored value is applied last
+        event.setUpdatedAt(updatedAt);
+        if (event.getPayload() == null && payloadData != null) {
+            attachPayload(event, payloadCodec, payloadData);
+        }
+        return event;
+    }
+    
+    @Override
+    public Class<Event> getEncoderClass() {
+        return Event.class;
+    }
+    
+    /**
+     * Set the payload stored as payloadData, or the reason it can no longer be read
+     */
+    static void attachPayload(Event event, PayloadCodec payloadCodec, byte[] data) {
+        try {
+            event.setPayload(decodePayload(payloadCodec, data));
+        } catch (PayloadUnavailableException e) {
+            // A referenced source record past Kafka retention fails only its own event, not the whole read
+            logger.warn("Payload of event {} unavailable: {}", event.getId(), e.getMessage());
+            event.setPayloadError(e.getMessage());
+        }
+    }
+    
+    /**
+     * Payload stored as payloadData
+     * @throws PayloadUnavailableException When the payload cannot be decoded or fetched
+     */
+    static String decodePayload(PayloadCodec payloadCodec, byte[] data) {
+        if (payloadCodec == null) {
+            throw new IllegalStateException("Event payload is encoded but no payload codec is configured");
+        }
+        try {
+            return payloadCodec.decode(data);
+        } catch (PayloadUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new PayloadUnavailableException("Payload could not be decoded: " + e.getMessage(), e);
+        }
+    }
+    
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+    
+    private static void writeLong(BsonWriter writer, String name, Long value) {
+        if (value != null) {
+            writer.writeInt64(name, value);
+        }
+    }
+    
+    private static void writeInstant(BsonWriter writer, String name, Instant value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.toEpochMilli());
+        }
+    }
+    
+    private static Long readLong(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> (long) reader.readInt32();
+            case DOUBLE -> (long) reader.readDouble();
+            default -> reader.readInt64();
+        };
+    }
+    
+    private static Instant readInstant(BsonReader reader) {
+        return Instant.ofEpochMilli(reader.readDateTime());
+    }
+}
@@ -1,12 +1,48 @@
 package com.orchestrator.mongo.store;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import com.orchestrator.core.store.DuplicateEventException;
 import com.orchestrator.core.store.Event;
 import com.orchestrator.core.store.EventStatus;
 import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.store.PayloadCodec;
+import com.orchestrator.mongo.config.MongoStoreProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.mongodb.core.BulkOperations;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.types.Binary;
+import org.bson.types.MaxKey;
+import org.bson.types.MinKey;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
@@ -14,7 +50,25 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * MongoDB implementation of EventStore
@@ -24,11 +78,227 @@ public class MongoEventStore implements EventStore {
     
     private static final Logger logger = LoggerFactory.getLogger(MongoEventStore.class);
     private static final String COLLECTION_NAME = "events";
+    private static final int PARTITION_CACHE_SIZE = 100_000;
+    private static final int CLEANUP_BATCH_SIZE = 10_000;
+    private static final String LEASE_COLLECTION = "maintenance_leases";
+    private static final int DUPLICATE_KEY = 11000;
     
     private final MongoTemplate mongoTemplate;
+    private final MongoStoreProperties properties;
+    private final boolean splitPayload;
+    private final PayloadCodec payloadCodec;
+    private final Duration ttl;
+    private final Map<String, Boolean> payloadBuckets = new ConcurrentHashMap<>();
+    private final MongoCollection<Event> eventCollection;
+    private final QueryMapper queryMapper;
+    private final UpdateMapper updateMapper;
+    private final WriteTarget insertTarget;
+    private final WriteTarget failureLogTarget;
+    private final WriteTarget statusUpdateTarget;
+    private final Map<Object, String> partitions;
     
     public MongoEventStore(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, new MongoStoreProperties(null, null, null, MongoStoreProperties.RetentionMode.SWEEP, false, null, null, false, null),
+            null, null, Metrics.globalRegistry);
+    }
+    
+    /**
+     * @param payloadCodec Encodes payloads into a BinData payloadData field; plain strings when null
+     * @param retentionPeriod Age at which the TTL index expires events; null when retention is disabled,
+     *                        so no TTL index is created
+     * @param meterRegistry Receives write latency per write concern profile
+     */
+    public MongoEventStore(MongoTemplate mongoTemplate, MongoStoreProperties properties, PayloadCodec payloadCodec,
+                          Duration retentionPeriod, MeterRegistry meterRegistry) {
         this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.payloadCodec = payloadCodec;
+        this.splitPayload = properties.schemaLayout() == MongoStoreProperties.SchemaLayout.SPLIT;
+        this.ttl = properties.retention() == MongoStoreProperties.RetentionMode.TTL && retentionPeriod != null
+            ? Duration.ofSeconds(retentionPeriod.toSeconds())
+            : null;
+        
+        // Event documents go through EventCodec instead of the reflective MappingMongoConverter
+        this.eventCollection = mongoTemplate.getCollection(COLLECTION_NAME)
+            .withCodecRegistry(CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(new EventCodec(payloadCodec, !splitPayload)),
+                mongoTemplate.getDb().getCodecRegistry()))
+            .withDocumentClass(Event.class);
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.updateMapper = new UpdateMapper(mongoTemplate.getConverter());
+        
+        MongoStoreProperties.WriteConcerns writeConcerns = properties.writeConcerns();
+        this.insertTarget = new WriteTarget("insert", writeConcerns.insert(), meterRegistry);
+        this.failureLogTarget = new WriteTarget("failure_log", writeConcerns.failureLog(), meterRegistry);
+        this.statusUpdateTarget = new WriteTarget("status_update", writeConcerns.statusUpdate(), meterRegistry);
+        
+        // topicPartition of recently seen events, so updates by id can carry the shard key
+        this.partitions = properties.shardKey() == MongoStoreProperties.ShardKey.TOPIC_PARTITION_OFFSET
+            ? Collections.synchronizedMap(new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+                    return size() > PARTITION_CACHE_SIZE;
+                }
+            })
+            : null;
+        
+        if (properties.shardKey() != MongoStoreProperties.ShardKey.NONE) {
+            shardCollection();
+        }
+        if (splitPayload && !properties.bucketPayloads()) {
+            createPayloadCollection(properties.payloadCollection());
+        }
+        if (ttl != null) {
+            ensureTtlIndex(COLLECTION_NAME);
+            if (splitPayload && !properties.bucketPayloads()) {
+                ensureTtlIndex(properties.payloadCollection());
+            }
+        }
+    }
+    
+    /**
+     * Payloads are written once and never updated, so they live in their own collection and
+     * status updates only rewrite the small event document. Documents written before the switch
+     * keep their payload; reads fall back to it.
+     */
+    private void createPayloadCollection(String collection) {
+        try {
+            if (!mongoTemplate.collectionExists(collection)) {
+                CreateCollectionOptions options = new CreateCollectionOptions();
+                if (properties.payloadCompressor() != null) {
+                    options.storageEngineOptions(new Document("wiredTiger",
+                        new Document("configString", "block_compressor=" + properties.payloadCompressor())));
+                }
+                mongoTemplate.getDb().createCollection(collection, options);
+            }
+            logger.info("MongoDB payload collection {} created/verified", collection);
+            
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != 48) { // NamespaceExists: another instance created it first
+                logger.error("Failed to create MongoDB payload collection {}", collection, e);
+                throw new RuntimeException("Schema initialization failed", e);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to create MongoDB payload collection {}", collection, e);
+            throw new RuntimeException("Schema initialization failed", e);
+        }
+    }
+    
+    /**
+     * Documents expire once createdAt is older than the retention period, removed by the server's
+     * TTL monitor in small background batches instead of one large remove. An existing createdAt
+     * index is converted in place with collMod, so changing the retention period needs no rebuild.
+     */
+    private void ensureTtlIndex(String collection) {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            Optional<IndexInfo> existing = indexOps.getIndexInfo().stream()
+                .filter(index -> index.getIndexFields().size() == 1 && "createdAt".equals(index.getIndexFields().get(0).getKey()))
+                .findFirst();
+            
+            if (existing.isEmpty()) {
+                indexOps.ensureIndex(new Index().on("createdAt", Sort.Direction.ASC).named("createdAt_ttl").expire(ttl));
+            } else if (!existing.get().getExpireAfter().map(ttl::equals).orElse(false)) {
+                mongoTemplate.getDb().runCommand(new Document("collMod", collection)
+                    .append("index", new Document("name", existing.get().getName()).append("expireAfterSeconds", ttl.toSeconds())));
+            }
+            logger.info("MongoDB TTL index on {}.createdAt created/verified ({})", collection, ttl);
+            
+        } catch (Exception e) {
+            logger.error("Failed to create MongoDB TTL index on {}", collection, e);
+            throw new RuntimeException("Schema initialization failed", e);
+        }
+    }
+    
+    /**
+     * Shards the events collection through mongos. Against a replica set or standalone server
+     * the collection stays unsharded, so the same settings run locally. Payload collections stay
+     * unsharded on the primary shard; they are only read by _id.
+     */
+    private void shardCollection() {
+        Document key = properties.shardKey() == MongoStoreProperties.ShardKey.HASHED_ID
+            ? new Document("_id", "hashed")
+            : new Document("topicPartition", 1).append("offsetValue", 1);
+        String namespace = mongoTemplate.getDb().getName() + "." + COLLECTION_NAME;
+        
+        try {
+            // Sharding a collection that already holds documents needs the shard key index first
+            mongoTemplate.getCollection(COLLECTION_NAME).createIndex(key);
+            
+            MongoDatabase admin = mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin");
+            admin.runCommand(new Document("enableSharding", mongoTemplate.getDb().getName()));
+            admin.runCommand(new Document("shardCollection", namespace).append("key", key));
+            logger.info("MongoDB collection {} sharded on {}", namespace, key.toJson());
+            
+        } catch (MongoCommandException e) {
+            switch (e.getErrorCode()) {
+                case 59 -> logger.warn("MongoDB is not a sharded cluster; {} left unsharded", namespace); // CommandNotFound outside mongos
+                case 13 -> logger.warn("Not authorized to shard {}; shard it on {} by hand", namespace, key.toJson());
+                default -> {
+                    logger.error("Failed to shard MongoDB collection {} on {}", namespace, key.toJson(), e);
+                    throw new RuntimeException("Schema initialization failed", e);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to shard MongoDB collection {} on {}", namespace, key.toJson(), e);
+            throw new RuntimeException("Schema initialization failed", e);
+        }
+    }
+    
+    private void rememberPartitions(Collection<Event> events) {
+        if (partitions != null) {
+            events.stream()
+                .filter(event -> event.getTopicPartition() != null)
+                .forEach(event -> partitions.put(event.getId(), event.getTopicPartition()));
+        }
+    }
+    
+    /**
+     * Events by id, with topicPartition added where known so mongos can route each group to the
+     * shards holding that partition. Ids not seen by this instance still match, on every shard.
+     * A hashed _id key is already targeted by the ids themselves.
+     */
+    private Criteria byIds(Collection<?> ids) {
+        if (partitions == null) {
+            return matchIds(Criteria.where("_id"), ids);
+        }
+        
+        Map<String, List<Object>> byPartition = new HashMap<>();
+        List<Object> unknown = new ArrayList<>();
+        for (Object id : ids) {
+            String partition = partitions.get(id);
+            if (partition != null) {
+                byPartition.computeIfAbsent(partition, p -> new ArrayList<>()).add(id);
+            } else {
+                unknown.add(id);
+            }
+        }
+        
+        List<Criteria> targeted = new ArrayList<>();
+        byPartition.forEach((partition, partitionIds) ->
+            targeted.add(matchIds(Criteria.where("topicPartition").is(partition).and("_id"), partitionIds)));
+        if (!unknown.isEmpty()) {
+            targeted.add(matchIds(Criteria.where("_id"), unknown));
+        }
+        return targeted.size() == 1 ? targeted.get(0) : new Criteria().orOperator(targeted);
+    }
+    
+    /**
+     * A single id as an equality match, which a sharded updateOne requires
+     */
+    private static Criteria matchIds(Criteria id, Collection<?> ids) {
+        return ids.size() == 1 ? id.is(ids.iterator().next()) : id.in(ids);
+    }
+    
+    /**
+     * Payload collection of an event; with bucketing, one collection per UTC day of createdAt
+     */
+    private String payloadCollection(Event event) {
+        if (!properties.bucketPayloads()) {
+            return properties.payloadCollection();
+        }
+        Instant createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : Instant.now();
+        return properties.payloadCollection() + "_" + LocalDate.ofInstant(createdAt, ZoneOffset.UTC).format(DateTimeFormatter.BASIC_ISO_DATE);
     }
     
     @Override
@@ -38,7 +308,6 @@ public class MongoEventStore implements EventStore {
         }
         
         try {
-            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION_NAME);
             events.forEach(event -> {
                 if (event.getReceivedAt() == null) {
                     event.setReceivedAt(Instant.now());
@@ -46,18 +315,151 @@ public class MongoEventStore implements EventStore {
                 if (event.getStatus() == null) {
                     event.setStatus(EventStatus.RECEIVED);
                 }
-                bulkOps.insert(event);
             });
             
-            var result = bulkOps.execute();
-            logger.debug("Bulk inserted {} events into MongoDB", result.getInsertedCount());
+            // A batch mixing both kinds takes the stronger insert profile
+            WriteTarget target = events.stream().allMatch(event -> event.getStatus() == EventStatus.FAILED)
+                ? failureLogTarget
+                : insertTarget;
+            
+            long start = System.nanoTime();
+            if (splitPayload) {
+                insertPayloads(events, target.writeConcern());
+            }
+            var result = eventCollection.withWriteConcern(target.writeConcern())
+                .insertMany(events, new InsertManyOptions().ordered(false));
+            target.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            rememberPartitions(events);
             
+            logger.debug("Bulk inserted {} events into MongoDB", result.getInsertedIds().size());
+            
+        } catch (MongoBulkWriteException e) {
+            // Unordered, so every other event of the batch is stored; only _id can conflict on events
+            if (onlyDuplicateKeys(e)) {
+                rememberPartitions(events);
+                logger.debug("Bulk insert of {} events hit {} events already stored", events.size(), e.getWriteErrors().size());
+                throw new DuplicateEventException("Event already stored", e);
+            }
+            logger.error("Failed to bulk insert {} events into MongoDB", events.size(), e);
+            throw new RuntimeException("Bulk insert failed", e);
         } catch (Exception e) {
             logger.error("Failed to bulk insert {} events into MongoDB", events.size(), e);
             throw new RuntimeException("Bulk insert failed", e);
         }
     }
     
+    private static boolean onlyDuplicateKeys(MongoBulkWriteException e) {
+        return e.getWriteConcernError() == null
+            && e.getWriteErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+    }
+    
+    /**
+     * Written before the event documents, so an event never exists without its payload.
+     * Upserted, so a payload left by an earlier delivery of the same record is kept and only
+     * the event document can conflict.
+     */
+    private void insertPayloads(List<Event> events, WriteConcern writeConcern) {
+        Instant now = Instant.now();
+        events.stream().collect(Collectors.groupingBy(this::payloadCollection)).forEach((collection, batch) -> {
+            if (properties.bucketPayloads()) {
+                // Created explicitly, so a new day's bucket gets the configured compressor too
+                payloadBuckets.computeIfAbsent(collection, name -> {
+                    createPayloadCollection(name);
+                    return true;
+                });
+            }
+            
+            List<WriteModel<Document>> upserts = new ArrayList<>(batch.size());
+            batch.forEach(event -> {
+                Document document = new Document("createdAt", now);
+                if (payloadCodec != null) {
+                    document.append("payloadData", new Binary(payloadCodec.encode(event)));
+                } else {
+                    document.append("payload", event.getPayload());
+                }
+                upserts.add(new UpdateOneModel<>(Filters.eq("_id", event.getId()),
+                    new Document("$setOnInsert", document), new UpdateOptions().upsert(true)));
+            });
+            try {
+                mongoTemplate.getCollection(collection).withWriteConcern(writeConcern)
+                    .bulkWrite(upserts, new BulkWriteOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                // Two upserts of the same id racing; the payload is stored either way
+                if (!onlyDuplicateKeys(e)) {
+                    throw e;
+                }
+            }
+        });
+    }
+    
+    /**
+     * Criteria are still built with Query; the mapper only converts values such as enums and
+     * Instants to their BSON form, the documents themselves are decoded by EventCodec
+     */
+    private List<Event> findEvents(Query query) {
+        FindIterable<Event> found = eventCollection.find(queryMapper.getMappedObject(query.getQueryObject(), (MongoPersistentEntity<?>) null));
+        if (!query.getSortObject().isEmpty()) {
+            found.sort(query.getSortObject());
+        }
+        if (query.isLimited()) {
+            found.limit(query.getLimit());
+        }
+        List<Event> events = found.into(new ArrayList<>());
+        rememberPartitions(events);
+        return attachPayloads(events);
+    }
+    
+    private void attachPayload(Event event, Document document) {
+        if (document.get("payloadData") instanceof Binary data) {
+            EventCodec.attachPayload(event, payloadCodec, data.getData());
+        } else {
+            event.setPayload(document.getString("payload"));
+        }
+    }
+    
+    private List<Event> attachPayloads(List<Event> events) {
+        if (!splitPayload || events.isEmpty()) {
+            return events;
+        }
+        
+        Map<String, Event> missing = new HashMap<>();
+        events.stream().filter(event -> event.getPayload() == null).forEach(event -> missing.put(event.getId(), event));
+        if (missing.isEmpty()) {
+            return events;
+        }
+        
+        missing.values().stream()
+            .collect(Collectors.groupingBy(this::payloadCollection, Collectors.mapping(Event::getId, Collectors.toList())))
+            .forEach((collection, ids) -> readPayloads(collection, ids, missing));
+        if (properties.bucketPayloads() && !missing.isEmpty()) {
+            // Written before bucketing was enabled
+            readPayloads(properties.payloadCollection(), List.copyOf(missing.keySet()), missing);
+        }
+        return events;
+    }
+    
+    private void readPayloads(String collection, Collection<String> ids, Map<String, Event> missing) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        for (Document payload : mongoTemplate.find(query, Document.class, collection)) {
+            attachPayload(missing.remove(payload.getString("_id")), payload);
+        }
+    }
+    
+    /**
+     * Status updates and lease claims, written with the status update write concern
+     */
+    private UpdateResult updateEvents(Query query, Update update, boolean multi) {
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), (MongoPersistentEntity<?>) null);
+        Document mappedUpdate = updateMapper.getMappedObject(update.getUpdateObject(), (MongoPersistentEntity<?>) null);
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION_NAME)
+            .withWriteConcern(statusUpdateTarget.writeConcern());
+        
+        long start = System.nanoTime();
+        UpdateResult result = multi ? collection.updateMany(filter, mappedUpdate) : collection.updateOne(filter, mappedUpdate);
+        statusUpdateTarget.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+    
     @Override
     public void updateStatus(String eventId, EventStatus status) {
         updateStatus(eventId, status, null);
@@ -66,7 +468,8 @@ public class MongoEventStore implements EventStore {
     @Override
     public void updateStatus(String eventId, EventStatus status, String errorMessage) {
         try {
-            Query query = new Query(Criteria.where("id").is(eventId));
+            // Queries name the collection, not the entity, so "id" would not be mapped to _id
+            Query query = new Query(byIds(List.of(eventId)));
             Update update = new Update()
                 .set("status", status)
                 .set("updatedAt", Instant.now());
@@ -79,7 +482,10 @@ public class MongoEventStore implements EventStore {
                 update.set("processedAt", Instant.now());
             }
             
-            var result = mongoTemplate.updateFirst(query, update, COLLECTION_NAME);
+            var result = updateEvents(query, update, false);
+            if (status == EventStatus.SUCCESS && partitions != null) {
+                partitions.remove(eventId);
+            }
             
             if (result.getModifiedCount() == 0) {
                 logger.warn("No event found with id {} to update status to {}", eventId, status);
@@ -93,16 +499,337 @@ public class MongoEventStore implements EventStore {
         }
     }
     
+    @Override
+    public void bulkUpdateStatus(List<String> eventIds, EventStatus status) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        
+        try {
+            Query query = new Query(byIds(eventIds));
+            Update update = new Update()
+                .set("status", status)
+                .set("updatedAt", Instant.now())
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+            
+            if (status == EventStatus.SUCCESS) {
+                update.set("processedAt", Instant.now());
+            }
+            
+            var result = updateEvents(query, update, true);
+            if (status == EventStatus.SUCCESS && partitions != null) {
+                eventIds.forEach(partitions::remove);
+            }
+            logger.debug("Bulk updated {} of {} events to status {}", result.getModifiedCount(), eventIds.size(), status);
+            
+        } catch (Exception e) {
+            logger.error("Failed to bulk update {} events to status {}", eventIds.size(), status, e);
+            throw new RuntimeException("Bulk status update failed", e);
+        }
+    }
+    
+    @Override
+    public int completeClaimed(List<String> eventIds, String leaseOwner) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            // A relay whose lease expired must not overwrite the state set by the relay that took over
+            Instant now = Instant.now();
+            Query query = new Query(heldBy(eventIds, leaseOwner));
+            Update update = new Update()
+                .set("status", EventStatus.SUCCESS)
+                .set("updatedAt", now)
+                .set("processedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+            
+            long settled = updateEvents(query, update, true).getModifiedCount();
+            if (partitions != null) {
+                eventIds.forEach(partitions::remove);
+            }
+            logger.debug("Completed {} of {} events claimed by {}", settled, eventIds.size(), leaseOwner);
+            return (int) settled;
+            
+        } catch (Exception e) {
+            logger.error("Failed to complete {} events claimed by {}", eventIds.size(), leaseOwner, e);
+            throw new RuntimeException("Claimed status update failed", e);
+        }
+    }
+    
+    @Override
+    public boolean failClaimed(String eventId, String leaseOwner, String errorMessage) {
+        try {
+            Query query = new Query(heldBy(List.of(eventId), leaseOwner));
+            Update update = new Update()
+                .set("status", EventStatus.FAILED)
+                .set("errorMessage", errorMessage)
+                .set("updatedAt", Instant.now())
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+            
+            long settled = updateEvents(query, update, false).getModifiedCount();
+            logger.debug("Failed event {} claimed by {}: {}", eventId, leaseOwner, settled > 0 ? "settled" : "lease lost");
+            return settled > 0;
+            
+        } catch (Exception e) {
+            logger.error("Failed to mark event {} claimed by {} as FAILED", eventId, leaseOwner, e);
+            throw new RuntimeException("Claimed status update failed", e);
+        }
+    }
+    
+    private Criteria heldBy(List<String> eventIds, String leaseOwner) {
+        return new Criteria().andOperator(
+            byIds(eventIds),
+            Criteria.where("status").is(EventStatus.PROCESSING),
+            Criteria.where("leaseOwner").is(leaseOwner)
+        );
+    }
+    
+    /**
+     * The lease owner is the caller's claim token, unique to this claim
+     */
+    @Override
+    public List<Event> claimPendingEvents(String leaseOwner, int limit, Duration leaseDuration) {
+        try {
+            Instant now = Instant.now();
+            Query candidates = new Query(claimableCriteria(now))
+                .with(Sort.by(Sort.Direction.ASC, "receivedAt"))
+                .limit(limit);
+            candidates.fields().include("_id").include("topicPartition");
+            
+            List<Document> candidateKeys = mongoTemplate.find(candidates, Document.class, COLLECTION_NAME);
+            if (candidateKeys.isEmpty()) {
+                return List.of();
+            }
+            if (partitions != null) {
+                candidateKeys.stream()
+                    .filter(document -> document.getString("topicPartition") != null)
+                    .forEach(document -> partitions.put(document.get("_id"), document.getString("topicPartition")));
+            }
+            List<Object> candidateIds = candidateKeys.stream().map(document -> document.get("_id")).toList();
+            
+            leaseEvents(candidateIds, leaseOwner, now, leaseDuration);
+            
+            List<Event> claimed = findEvents(leasedBy(candidateIds, leaseOwner));
+            claimed.sort(Comparator.comparing(Event::getReceivedAt));
+            
+            logger.debug("Claimed {} of {} outbox candidates for {}", claimed.size(), candidateIds.size(), leaseOwner);
+            return claimed;
+            
+        } catch (Exception e) {
+            logger.error("Failed to claim outbox events for {}", leaseOwner, e);
+            throw new RuntimeException("Outbox claim failed", e);
+        }
+    }
+    
+    /**
+     * Lease events a change stream reported as inserted, without looking for candidates first
+     * @param leaseOwner Claim token, unique to this claim, as for claimPendingEvents
+     * @return The events this call leased, with payloads; ones another relay took are skipped
+     */
+    public List<Event> claimEvents(List<Event> candidates, String leaseOwner, Duration leaseDuration) {
+        try {
+            Instant now = Instant.now();
+            rememberPartitions(candidates);
+            
+            List<Object> candidateIds = candidates.stream().<Object>map(Event::getId).toList();
+            long leased = leaseEvents(candidateIds, leaseOwner, now, leaseDuration);
+            
+            List<Event> claimed;
+            if (leased == 0) {
+                return List.of();
+            } else if (leased == candidates.size()) {
+                // Uncontended: the change events already carry the documents
+                candidates.forEach(event -> event.setStatus(EventStatus.PROCESSING));
+                claimed = attachPayloads(new ArrayList<>(candidates));
+            } else {
+                claimed = findEvents(leasedBy(candidateIds, leaseOwner));
+            }
+            claimed.sort(Comparator.comparing(Event::getReceivedAt));
+            
+            logger.debug("Claimed {} of {} inserted events for {}", claimed.size(), candidates.size(), leaseOwner);
+            return claimed;
+            
+        } catch (Exception e) {
+            logger.error("Failed to claim outbox events for {}", leaseOwner, e);
+            throw new RuntimeException("Outbox claim failed", e);
+        }
+    }
+    
+    /**
+     * Re-checking the claimable criteria keeps each document's lease atomic, so candidates
+     * taken by another relay in the meantime are simply skipped
+     * @return Number of events leased
+     */
+    private long leaseEvents(List<Object> ids, String claimToken, Instant now, Duration leaseDuration) {
+        Query lease = new Query(new Criteria().andOperator(
+            byIds(ids),
+            claimableCriteria(now)
+        ));
+        Update update = new Update()
+            .set("status", EventStatus.PROCESSING)
+            .set("leaseOwner", claimToken)
+            .set("leaseExpiresAt", now.plus(leaseDuration))
+            .set("updatedAt", now);
+        return updateEvents(lease, update, true).getModifiedCount();
+    }
+    
+    /**
+     * Events one claim leased, looked up by the candidate ids so the read is routed like the lease
+     */
+    private Query leasedBy(List<Object> candidateIds, String claimToken) {
+        return new Query(new Criteria().andOperator(
+            byIds(candidateIds),
+            Criteria.where("leaseOwner").is(claimToken)
+        ));
+    }
+    
+    /**
+     * Change stream of events inserted with status RECEIVED, decoded by EventCodec.
+     * Requires a replica set or sharded cluster.
+     */
+    public ChangeStreamIterable<Event> watchReceivedInserts() {
+        return eventCollection.watch(List.of(Aggregates.match(Filters.and(
+            Filters.eq("operationType", "insert"),
+            Filters.eq("fullDocument.status", EventStatus.RECEIVED.name())
+        ))));
+    }
+    
+    private Criteria claimableCriteria(Instant now) {
+        return new Criteria().orOperator(
+            Criteria.where("status").is(EventStatus.RECEIVED),
+            Criteria.where("status").is(EventStatus.PROCESSING).and("leaseExpiresAt").lt(now)
+        );
+    }
+    
+    @Override
+    public List<Event> findFailedEvents(Event after, Instant dueBy, int maxRetries, int limit) {
+        try {
+            Criteria due = new Criteria().orOperator(
+                Criteria.where("status").is(EventStatus.FAILED).orOperator(
+                    Criteria.where("nextRetryAt").is(null),
+                    Criteria.where("nextRetryAt").lte(dueBy)),
+                Criteria.where("status").is(EventStatus.RETRYING).and("leaseExpiresAt").lt(dueBy)
+            );
+            Criteria criteria = after == null
+                ? new Criteria().andOperator(due, Criteria.where("retryCount").lt(maxRetries))
+                : new Criteria().andOperator(due, Criteria.where("retryCount").lt(maxRetries), new Criteria().orOperator(
+                    Criteria.where("receivedAt").gt(after.getReceivedAt()),
+                    Criteria.where("receivedAt").is(after.getReceivedAt()).and("_id").gt(after.getId())));
+            
+            Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "receivedAt", "_id"))
+                .limit(limit);
+            
+            List<Event> failedEvents = findEvents(query);
+            logger.debug("Found {} failed events due for redrive", failedEvents.size());
+            return failedEvents;
+            
+        } catch (Exception e) {
+            logger.error("Failed to find failed events", e);
+            throw new RuntimeException("Failed event query failed", e);
+        }
+    }
+    
+    @Override
+    public List<String> claimFailedEvents(List<String> eventIds, String leaseOwner, Duration leaseDuration) {
+        if (eventIds.isEmpty()) {
+            return List.of();
+        }
+        
+        try {
+            Instant now = Instant.now();
+            String claimToken = leaseOwner + ":" + UUID.randomUUID();
+            
+            // Each document's status is re-checked as it is updated, so a concurrent claim wins once
+            Query claim = new Query(new Criteria().andOperator(
+                byIds(eventIds),
+                new Criteria().orOperator(
+                    Criteria.where("status").is(EventStatus.FAILED),
+                    Criteria.where("status").is(EventStatus.RETRYING).and("leaseExpiresAt").lt(now))
+            ));
+            Update update = new Update()
+                .set("status", EventStatus.RETRYING)
+                .set("leaseOwner", claimToken)
+                .set("leaseExpiresAt", now.plus(leaseDuration))
+                .set("updatedAt", now);
+            long leased = updateEvents(claim, update, true).getModifiedCount();
+            
+            List<String> claimed;
+            if (leased == eventIds.size()) {
+                claimed = eventIds;
+            } else if (leased == 0) {
+                claimed = List.of();
+            } else {
+                Query owned = new Query(new Criteria().andOperator(byIds(eventIds), Criteria.where("leaseOwner").is(claimToken)));
+                owned.fields().include("_id");
+                claimed = mongoTemplate.find(owned, Document.class, COLLECTION_NAME).stream()
+                    .map(document -> document.getString("_id"))
+                    .toList();
+            }
+            
+            logger.debug("Claimed {} of {} failed events for redrive by {}", claimed.size(), eventIds.size(), leaseOwner);
+            return claimed;
+            
+        } catch (Exception e) {
+            logger.error("Failed to claim failed events for {}", leaseOwner, e);
+            throw new RuntimeException("Failed event claim failed", e);
+        }
+    }
+    
+    /**
+     * One unordered bulk write per page; every event carries its own retry state and error
+     */
+    @Override
+    public void scheduleRetries(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        try {
+            Instant now = Instant.now();
+            List<WriteModel<Document>> updates = new ArrayList<>(events.size());
+            for (Event event : events) {
+                Update update = new Update()
+                    .set("status", EventStatus.FAILED)
+                    .set("retryCount", event.getRetryCount())
+                    .set("nextRetryAt", event.getNextRetryAt())
+                    .set("errorMessage", event.getErrorMessage())
+                    .set("updatedAt", now)
+                    .unset("leaseOwner")
+                    .unset("leaseExpiresAt");
+                updates.add(new UpdateOneModel<>(
+                    queryMapper.getMappedObject(byIds(List.of(event.getId())).getCriteriaObject(), (MongoPersistentEntity<?>) null),
+                    updateMapper.getMappedObject(update.getUpdateObject(), (MongoPersistentEntity<?>) null)));
+            }
+            
+            long start = System.nanoTime();
+            mongoTemplate.getCollection(COLLECTION_NAME)
+                .withWriteConcern(statusUpdateTarget.writeConcern())
+                .bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            statusUpdateTarget.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            
+            logger.debug("Rescheduled {} failed events", events.size());
+            
+        } catch (Exception e) {
+            logger.error("Failed to reschedule {} failed events", events.size(), e);
+            throw new RuntimeException("Retry scheduling failed", e);
+        }
+    }
+    
     @Override
     public List<Event> findStaleEvents(Duration threshold) {
         try {
             Instant cutoff = Instant.now().minus(threshold);
-            Query query = new Query(
-                Criteria.where("status").is(EventStatus.RECEIVED)
-                    .and("receivedAt").lt(cutoff)
-            );
+            Criteria stale = Criteria.where("status").is(EventStatus.RECEIVED)
+                .and("receivedAt").lt(cutoff);
             
-            List<Event> staleEvents = mongoTemplate.find(query, Event.class, COLLECTION_NAME);
+            List<Event> staleEvents = properties.shardKey() == MongoStoreProperties.ShardKey.TOPIC_PARTITION_OFFSET
+                ? findPerShard(stale)
+                : findEvents(new Query(stale));
             logger.debug("Found {} stale events older than {}", staleEvents.size(), threshold);
             
             return staleEvents;
@@ -113,6 +840,63 @@ public class MongoEventStore implements EventStore {
         }
     }
     
+    /**
+     * One query per shard, limited to the topicPartition ranges of the chunks that shard owns, so
+     * mongos sends each to that shard instead of gathering from all of them at once. A hashed key
+     * has no queryable ranges; there the sweep stays a single query on status_receivedAt.
+     */
+    private List<Event> findPerShard(Criteria criteria) {
+        Map<String, List<Criteria>> ranges = partitionRangesByShard();
+        if (ranges.isEmpty()) {
+            return findEvents(new Query(criteria));
+        }
+        
+        // A partition split across shards is read by each of them
+        Map<String, Event> found = new LinkedHashMap<>();
+        ranges.forEach((shard, shardRanges) -> {
+            Criteria owned = shardRanges.size() == 1 ? shardRanges.get(0) : new Criteria().orOperator(shardRanges);
+            findEvents(new Query(new Criteria().andOperator(criteria, owned)))
+                .forEach(event -> found.putIfAbsent(event.getId(), event));
+        });
+        return new ArrayList<>(found.values());
+    }
+    
+    /**
+     * topicPartition ranges of the events chunks per shard, from the config database
+     * @return Empty when the collection is not sharded
+     */
+    private Map<String, List<Criteria>> partitionRangesByShard() {
+        MongoDatabase config = mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("config");
+        String namespace = mongoTemplate.getDb().getName() + "." + COLLECTION_NAME;
+        Document collection = config.getCollection("collections").find(Filters.eq("_id", namespace)).first();
+        if (collection == null) {
+            return Map.of();
+        }
+        
+        // Chunks reference the collection by uuid since 5.0, by namespace before
+        Map<String, List<Criteria>> ranges = new TreeMap<>();
+        for (Document chunk : config.getCollection("chunks").find(collection.get("uuid") != null
+                ? Filters.eq("uuid", collection.get("uuid"))
+                : Filters.eq("ns", namespace))) {
+            Object min = chunk.get("min", Document.class).get("topicPartition");
+            Object max = chunk.get("max", Document.class).get("topicPartition");
+            
+            Criteria range;
+            if (min instanceof MinKey && max instanceof MaxKey) {
+                range = new Criteria();
+            } else if (min instanceof MinKey) {
+                range = Criteria.where("topicPartition").lte(max);
+            } else if (max instanceof MaxKey) {
+                range = Criteria.where("topicPartition").gte(min);
+            } else {
+                // Inclusive upper bound: a chunk ending inside a partition holds part of it
+                range = Criteria.where("topicPartition").gte(min).lte(max);
+            }
+            ranges.computeIfAbsent(chunk.getString("shard"), shard -> new ArrayList<>()).add(range);
+        }
+        return ranges;
+    }
+    
     @Override
     public long countPendingEvents() {
         try {
@@ -159,16 +943,90 @@ public class MongoEventStore implements EventStore {
         }
     }
     
+    /**
+     * All status counts in one aggregation instead of one count per status
+     */
+    @Override
+    public Map<EventStatus, Long> countEventsByStatus() {
+        try {
+            Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("status").count().as("count")
+            );
+            
+            Map<EventStatus, Long> counts = new EnumMap<>(EventStatus.class);
+            for (Document result : mongoTemplate.aggregate(aggregation, COLLECTION_NAME, Document.class)) {
+                counts.put(EventStatus.valueOf(result.getString("_id")), ((Number) result.get("count")).longValue());
+            }
+            return counts;
+        } catch (Exception e) {
+            logger.error("Failed to count events by status", e);
+            throw new RuntimeException("Status count failed", e);
+        }
+    }
+    
+    /**
+     * Event documents go first, so an event never exists without its payload
+     */
+    @Override
+    public int deleteEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            List<String> eventIds = events.stream().map(Event::getId).toList();
+            Document filter = queryMapper.getMappedObject(byIds(eventIds).getCriteriaObject(), (MongoPersistentEntity<?>) null);
+            long deletedCount = mongoTemplate.getCollection(COLLECTION_NAME)
+                .withWriteConcern(statusUpdateTarget.writeConcern())
+                .deleteMany(filter)
+                .getDeletedCount();
+            
+            if (splitPayload) {
+                events.stream().collect(Collectors.groupingBy(this::payloadCollection)).forEach((collection, batch) ->
+                    mongoTemplate.remove(new Query(Criteria.where("_id").in(batch.stream().map(Event::getId).toList())), collection));
+            }
+            if (partitions != null) {
+                eventIds.forEach(partitions::remove);
+            }
+            logger.debug("Deleted {} of {} events", deletedCount, events.size());
+            
+            return (int) deletedCount;
+            
+        } catch (Exception e) {
+            logger.error("Failed to delete {} events", events.size(), e);
+            throw new RuntimeException("Event delete failed", e);
+        }
+    }
+    
+    /**
+     * With TTL retention the server already expires events, so only expired payload buckets
+     * are dropped here
+     */
     @Override
     public int cleanupOldEvents(Duration retentionPeriod) {
+        return cleanupOldEvents(retentionPeriod, Instant.MAX);
+    }
+    
+    /**
+     * Removes in batches of CLEANUP_BATCH_SIZE documents, so a large backlog does not run as one
+     * long multi-document delete and the job stops once the deadline has passed
+     */
+    @Override
+    public int cleanupOldEvents(Duration retentionPeriod, Instant deadline) {
         try {
             Instant cutoff = Instant.now().minus(retentionPeriod);
-            Query query = new Query(
-                Criteria.where("createdAt").lt(cutoff)
-            );
+            if (properties.bucketPayloads()) {
+                dropExpiredBuckets(cutoff);
+            }
+            if (ttl != null) {
+                logger.debug("Event retention handled by the TTL index on createdAt");
+                return 0;
+            }
             
-            var result = mongoTemplate.remove(query, COLLECTION_NAME);
-            int deletedCount = (int) result.getDeletedCount();
+            int deletedCount = removeBefore(COLLECTION_NAME, cutoff, deadline);
+            if (splitPayload && !properties.bucketPayloads()) {
+                removeBefore(properties.payloadCollection(), cutoff, deadline);
+            }
             logger.info("Cleaned up {} old events older than {}", deletedCount, retentionPeriod);
             
             return deletedCount;
@@ -178,4 +1036,96 @@ public class MongoEventStore implements EventStore {
             return 0;
         }
     }
-}
\ No newline at end of file
+    
+    private int removeBefore(String collection, Instant cutoff, Instant deadline) {
+        int deleted = 0;
+        List<Object> ids;
+        do {
+            Query batch = new Query(Criteria.where("createdAt").lt(cutoff)).limit(CLEANUP_BATCH_SIZE);
+            batch.fields().include("_id");
+            ids = mongoTemplate.find(batch, Document.class, collection).stream()
+                .map(document -> document.get("_id"))
+                .toList();
+            
+            if (!ids.isEmpty()) {
+                deleted += (int) mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), collection).getDeletedCount();
+            }
+        } while (ids.size() == CLEANUP_BATCH_SIZE && Instant.now().isBefore(deadline));
+        return deleted;
+    }
+    
+    /**
+     * Upserts the lease document, matching it only while the caller holds the lease or it has
+     * expired; when another instance holds it the upsert collides on _id and the lease is not
+     * acquired. Expiry is computed from the server's $$NOW, so clock skew between instances does
+     * not matter, and the majority write keeps a lease from being lost on primary failover.
+     */
+    @Override
+    public boolean tryAcquireLease(String name, String owner, Duration leaseDuration) {
+        try {
+            mongoTemplate.getCollection(LEASE_COLLECTION)
+                .withWriteConcern(WriteConcern.MAJORITY)
+                .updateOne(
+                    Filters.and(
+                        Filters.eq("_id", name),
+                        Filters.or(
+                            Filters.eq("owner", owner),
+                            Filters.expr(new Document("$lt", List.of("$expiresAt", "$$NOW"))))),
+                    List.of(new Document("$set", new Document("owner", new Document("$literal", owner))
+                        .append("expiresAt", new Document("$add", List.of("$$NOW", leaseDuration.toMillis()))))),
+                    new UpdateOptions().upsert(true));
+            return true;
+            
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            logger.error("Failed to acquire lease {} for {}", name, owner, e);
+            throw new RuntimeException("Lease acquisition failed", e);
+        } catch (Exception e) {
+            logger.error("Failed to acquire lease {} for {}", name, owner, e);
+            throw new RuntimeException("Lease acquisition failed", e);
+        }
+    }
+    
+    /**
+     * A bucket is dropped once its whole day is past the cutoff; dropping a collection frees its
+     * storage at once and writes a single oplog entry
+     */
+    private void dropExpiredBuckets(Instant cutoff) {
+        String prefix = properties.payloadCollection() + "_";
+        for (String collection : mongoTemplate.getCollectionNames()) {
+            if (!collection.startsWith(prefix)) {
+                continue;
+            }
+            
+            LocalDate day;
+            try {
+                day = LocalDate.parse(collection.substring(prefix.length()), DateTimeFormatter.BASIC_ISO_DATE);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            
+            if (!day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().isAfter(cutoff)) {
+                mongoTemplate.dropCollection(collection);
+                payloadBuckets.remove(collection);
+                logger.info("Dropped expired payload bucket {}", collection);
+            }
+        }
+    }
+    
+    /**
+     * Write concern of one kind of write with its latency timer
+     */
+    private record WriteTarget(WriteConcern writeConcern, Timer latency) {
+        
+        WriteTarget(String operation, MongoStoreProperties.WriteConcernProfile profile, MeterRegistry meterRegistry) {
+            this(profile.toWriteConcern(), Timer.builder("orchestrator.db.write.latency")
+                .description("MongoDB write latency per write concern profile")
+                .tag("operation", operation)
+                .tag("write_concern", profile.toString())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+        }
+    }
+}
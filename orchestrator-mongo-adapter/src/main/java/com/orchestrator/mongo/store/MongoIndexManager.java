@@ -0,0 +1,131 @@
+package com.orchestrator.mongo.store;
+
+import com.orchestrator.core.store.EventStatus;
+import com.orchestrator.mongo.config.MongoStoreProperties;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index set of the events collection, the Mongo counterpart of PostgresEventStore.createIndexes.
+ * Indexes are created by name on a background thread at startup; creating an index that already
+ * exists with the same spec is a no-op, so restarts and instances starting together are safe.
+ * Event ids are the document _id, which is always indexed.
+ */
+public class MongoIndexManager implements InitializingBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexManager.class);
+    private static final String COLLECTION_NAME = "events";
+    
+    private final MongoTemplate mongoTemplate;
+    private final MongoStoreProperties properties;
+    
+    private volatile boolean provisioned;
+    
+    public MongoIndexManager(MongoTemplate mongoTemplate, MongoStoreProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.manageIndexes()) {
+            logger.info("MongoDB index management disabled");
+            return;
+        }
+        
+        Thread provisioner = new Thread(this::provision, "orchestrator-mongo-indexes");
+        provisioner.setDaemon(true);
+        provisioner.start();
+    }
+    
+    private void provision() {
+        List<Index> indexes = List.of(
+            // Stale-event scans, outbox claims (RECEIVED by receivedAt) and per-status counts
+            new Index().on("status", Sort.Direction.ASC).on("receivedAt", Sort.Direction.ASC).named("status_receivedAt"),
+            // Events claimed by one relay call, read back right after the claim
+            new Index().on("leaseOwner", Sort.Direction.ASC).named("leaseOwner")
+                .partial(PartialIndexFilter.of(Criteria.where("leaseOwner").exists(true))),
+            // Failed events only, in the keyset order redrive pages through them
+            new Index().on("receivedAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("failed_receivedAt_id")
+                .partial(PartialIndexFilter.of(Criteria.where("status").is(EventStatus.FAILED.name()))),
+            // Redrive claims whose lease expired, the other branch of the redrive $or; a separate
+            // index because partial filters only accept $in from MongoDB 6.0
+            new Index().on("receivedAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("retrying_receivedAt_id")
+                .partial(PartialIndexFilter.of(Criteria.where("status").is(EventStatus.RETRYING.name()))),
+            // Matches countSlowEvents exactly, so only slow events are indexed
+            new Index().on("totalLatencyMs", Sort.Direction.ASC).named("slow_totalLatencyMs")
+                .partial(PartialIndexFilter.of(Criteria.where("totalLatencyMs").gt(1000)))
+        );
+        
+        int failures = 0;
+        for (Index index : indexes) {
+            try {
+                mongoTemplate.indexOps(COLLECTION_NAME).ensureIndex(index);
+            } catch (Exception e) {
+                // An index of the same name but another spec was created by hand; leave it alone
+                failures++;
+                logger.warn("Failed to create MongoDB index {} on {}: {}", index.getIndexOptions().get("name"), COLLECTION_NAME, e.getMessage());
+            }
+        }
+        
+        provisioned = failures == 0;
+        logger.info("MongoDB indexes on {} created/verified ({} of {})", COLLECTION_NAME, indexes.size() - failures, indexes.size());
+    }
+    
+    public boolean isProvisioned() {
+        return provisioned;
+    }
+    
+    /**
+     * Per-index usage from $indexStats with index sizes; counters reset when the server restarts
+     * @return Index reports keyed by collection
+     */
+    public Map<String, List<Map<String, Object>>> indexUsage() {
+        List<String> collections = new ArrayList<>(List.of(COLLECTION_NAME));
+        if (properties.schemaLayout() == MongoStoreProperties.SchemaLayout.SPLIT && !properties.bucketPayloads()) {
+            collections.add(properties.payloadCollection());
+        }
+        
+        Map<String, List<Map<String, Object>>> usage = new LinkedHashMap<>();
+        for (String collection : collections) {
+            try {
+                Document sizes = new Document();
+                for (Document stats : mongoTemplate.getCollection(collection)
+                        .aggregate(List.of(new Document("$collStats", new Document("storageStats", new Document()))))) {
+                    sizes = stats.get("storageStats", Document.class).get("indexSizes", Document.class);
+                }
+                
+                List<Map<String, Object>> indexes = new ArrayList<>();
+                for (Document stats : mongoTemplate.getCollection(collection)
+                        .aggregate(List.of(new Document("$indexStats", new Document())))) {
+                    Document accesses = stats.get("accesses", Document.class);
+                    Map<String, Object> index = new LinkedHashMap<>();
+                    index.put("name", stats.getString("name"));
+                    index.put("key", stats.get("key"));
+                    index.put("ops", accesses.get("ops"));
+                    index.put("since", accesses.getDate("since"));
+                    index.put("sizeBytes", sizes != null ? sizes.get(stats.getString("name")) : null);
+                    indexes.add(index);
+                }
+                usage.put(collection, indexes);
+                
+            } catch (Exception e) {
+                logger.error("Failed to read index usage of {}", collection, e);
+                usage.put(collection, List.of());
+            }
+        }
+        return usage;
+    }
+}
@@ -0,0 +1,146 @@
+package com.orchestrator.mongo.store;
+
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStatus;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Event to BSON and back through EventCodec and through MappingMongoConverter.
+ * Both sides serialize to the same wire bytes the driver sends, so the difference is the
+ * mapping cost only. Not picked up by the default test run; start it explicitly:
+ * mvn -pl orchestrator-mongo-adapter test -Dtest=EventCodecBenchmark
+ */
+public class EventCodecBenchmark {
+    
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 10_000);
+    private static final int ROUNDS = 20;
+    
+    private final EventCodec eventCodec = new EventCodec(null, true);
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final MappingMongoConverter converter = converter();
+    
+    @Test
+    public void compareCodecWithConverter() {
+        List<Event> events = events();
+        
+        // Documents written by either side must read back the same through the other
+        Event event = events.get(1);
+        assertSameEvent(event, decodeWithCodec(encodeWithConverter(event)));
+        assertSameEvent(event, decodeWithConverter(encodeWithCodec(event)));
+        
+        measure("converter", events, this::encodeWithConverter, this::decodeWithConverter);
+        measure("codec", events, this::encodeWithCodec, this::decodeWithCodec);
+        measure("converter", events, this::encodeWithConverter, this::decodeWithConverter);
+        measure("codec", events, this::encodeWithCodec, this::decodeWithCodec);
+    }
+    
+    private void measure(String name, List<Event> events, Function<Event, byte[]> encode, Function<byte[], Event> decode) {
+        List<byte[]> encoded = new ArrayList<>(events.size());
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        
+        for (int round = 0; round < ROUNDS; round++) {
+            encoded.clear();
+            long start = System.nanoTime();
+            for (Event event : events) {
+                encoded.add(encode.apply(event));
+            }
+            encodeNanos += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for (byte[] bytes : encoded) {
+                decode.apply(bytes);
+            }
+            decodeNanos += System.nanoTime() - start;
+        }
+        
+        long total = (long) events.size() * ROUNDS;
+        System.out.printf("%-10s encode: %,12.0f events/s  decode: %,12.0f events/s  size: %d bytes%n",
+            name, total / (encodeNanos / 1e9), total / (decodeNanos / 1e9), encoded.get(0).length);
+    }
+    
+    private byte[] encodeWithCodec(Event event) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        eventCodec.encode(new BsonBinaryWriter(buffer), event, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+    
+    private Event decodeWithCodec(byte[] bytes) {
+        return eventCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+    
+    private byte[] encodeWithConverter(Event event) {
+        Document document = new Document();
+        converter.write(event, document);
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+    
+    private Event decodeWithConverter(byte[] bytes) {
+        Document document = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+        return converter.read(Event.class, document);
+    }
+    
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+    
+    private static List<Event> events() {
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+        List<Event> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            Event event = new Event("event-" + i, "{\"paymentId\":\"" + i + "\",\"amount\":100.00}", "payments-" + (i % 12), (long) i);
+            event.setCreatedAt(now);
+            event.setReceivedAt(now);
+            event.setMessageKey("key-" + i);
+            event.setSendTimestampNs(System.nanoTime());
+            event.setReceivedAtOrchestrator(now);
+            event.setConsumerLatencyMs(3L);
+            event.setStatus(i % 2 == 0 ? EventStatus.RECEIVED : EventStatus.SUCCESS);
+            event.setUpdatedAt(now);
+            events.add(event);
+        }
+        return events;
+    }
+    
+    private static void assertSameEvent(Event expected, Event actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getPayload(), actual.getPayload());
+        assertEquals(expected.getTopicPartition(), actual.getTopicPartition());
+        assertEquals(expected.getOffsetValue(), actual.getOffsetValue());
+        assertEquals(expected.getMessageKey(), actual.getMessageKey());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        assertEquals(expected.getSendTimestampNs(), actual.getSendTimestampNs());
+        assertEquals(expected.getRetryCount(), actual.getRetryCount());
+    }
+}
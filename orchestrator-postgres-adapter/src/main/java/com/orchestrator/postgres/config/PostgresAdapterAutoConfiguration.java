@@ -1,9 +1,12 @@
 package com.orchestrator.postgres.config;
 
+import com.orchestrator.core.store.PayloadCodec;
 import com.orchestrator.postgres.store.PostgresEventStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.jdbc.core.JdbcTemplate;
 
@@ -11,11 +14,15 @@ import org.springframework.jdbc.core.JdbcTemplate;
  * Auto-configuration for PostgreSQL-specific EventStore implementation
  */
 @AutoConfiguration(after = DataSourceAutoConfiguration.class)
+@EnableConfigurationProperties(PostgresProperties.class)
 public class PostgresAdapterAutoConfiguration {
     
     @Bean
     @ConditionalOnClass(JdbcTemplate.class)
-    public PostgresEventStore postgresEventStore(JdbcTemplate jdbcTemplate) {
-        return new PostgresEventStore(jdbcTemplate);
+    public PostgresEventStore postgresEventStore(
+            JdbcTemplate jdbcTemplate,
+            PostgresProperties properties,
+            ObjectProvider<PayloadCodec> payloadCodec) {
+        return new PostgresEventStore(jdbcTemplate, properties, payloadCodec.getIfAvailable());
     }
 }
\ No newline at end of file
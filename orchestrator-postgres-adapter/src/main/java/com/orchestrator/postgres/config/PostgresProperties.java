@@ -0,0 +1,43 @@
+package com.orchestrator.postgres.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * PostgreSQL adapter settings
+ * @param indexStrategy Which index set the events table is created with
+ * @param fillfactor Table fillfactor; defaults to 90 for PARTIAL and 100 for FULL
+ * @param schemaLayout Whether payloads are stored with the event row or in a separate table
+ * @param payloadCompression TOAST compression of the payload table (pglz or lz4), server default if unset
+ */
+@ConfigurationProperties(prefix = "orchestrator.postgres")
+public record PostgresProperties(
+    IndexStrategy indexStrategy,
+    Integer fillfactor,
+    SchemaLayout schemaLayout,
+    String payloadCompression
+) {
+    
+    public PostgresProperties {
+        if (indexStrategy == null) indexStrategy = IndexStrategy.FULL;
+        if (fillfactor == null) fillfactor = indexStrategy == IndexStrategy.PARTIAL ? 90 : 100;
+        if (fillfactor < 10 || fillfactor > 100) {
+            throw new IllegalArgumentException("orchestrator.postgres.fillfactor must be between 10 and 100: " + fillfactor);
+        }
+        if (schemaLayout == null) schemaLayout = SchemaLayout.SINGLE;
+        if (payloadCompression != null && !List.of("pglz", "lz4").contains(payloadCompression)) {
+            throw new IllegalArgumentException("orchestrator.postgres.payload-compression must be pglz or lz4: " + payloadCompression);
+        }
+    }
+    
+    public enum IndexStrategy {
+        FULL,   // B-trees on status, received_at and total_latency_ms
+        PARTIAL // Partial B-trees on the open statuses and slow events, BRIN on created_at
+    }
+    
+    public enum SchemaLayout {
+        SINGLE, // Payload stored in the events row
+        SPLIT   // Payload written once to event_payloads; events only holds status and timing
+    }
+}
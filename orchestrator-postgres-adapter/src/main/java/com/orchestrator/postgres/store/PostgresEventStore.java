@@ -1,13 +1,19 @@
 package com.orchestrator.postgres.store;
 
+import com.orchestrator.core.store.DuplicateEventException;
 import com.orchestrator.core.store.Event;
 import com.orchestrator.core.store.EventStatus;
 import com.orchestrator.core.store.EventStore;
+import com.orchestrator.core.store.PayloadCodec;
+import com.orchestrator.core.store.PayloadUnavailableException;
+import com.orchestrator.postgres.config.PostgresProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -15,7 +21,12 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * PostgreSQL implementation of EventStore using JDBC for optimal performance
@@ -24,11 +35,31 @@ import java.util.List;
 public class PostgresEventStore implements EventStore {
     
     private static final Logger logger = LoggerFactory.getLogger(PostgresEventStore.class);
+    private static final int CLEANUP_BATCH_SIZE = 10_000;
+    private static final String UNIQUE_VIOLATION = "23505";
+    
+    // Statuses read by the stale scan, the outbox claim and the redrive
+    private static final List<String> OPEN_STATUSES = List.of("RECEIVED", "PROCESSING", "FAILED", "RETRYING");
     
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostgresProperties properties;
+    private final boolean splitPayload;
+    private final PayloadCodec payloadCodec;
     
     public PostgresEventStore(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, new PostgresProperties(null, null, null, null), null);
+    }
+    
+    /**
+     * @param payloadCodec Encodes payloads into the bytea payload_data column; plain TEXT when null
+     */
+    public PostgresEventStore(JdbcTemplate jdbcTemplate, PostgresProperties properties, PayloadCodec payloadCodec) {
         this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.properties = properties;
+        this.payloadCodec = payloadCodec;
+        this.splitPayload = properties.schemaLayout() == PostgresProperties.SchemaLayout.SPLIT;
         initializeSchema();
     }
     
@@ -56,12 +87,40 @@ public class PostgresEventStore implements EventStore {
                 )
                 """);
             
-            // Create indexes for better performance
-            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_status ON events(status)");
-            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_received_at ON events(received_at)");
-            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_total_latency ON events(total_latency_ms)");
+            // Columns added after the initial schema, so existing tables are upgraded in place
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255)");
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP WITH TIME ZONE");
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS message_key TEXT");
+            // Kafka keys have no length limit; VARCHAR to TEXT needs no table rewrite
+            jdbcTemplate.execute("ALTER TABLE events ALTER COLUMN message_key TYPE TEXT");
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS payload_data BYTEA");
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS retry_count INTEGER NOT NULL DEFAULT 0");
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP WITH TIME ZONE");
+            
+            if (payloadCodec != null) {
+                jdbcTemplate.execute("ALTER TABLE events ALTER COLUMN payload DROP NOT NULL");
+            }
+            
+            if (splitPayload) {
+                createPayloadTable();
+            }
+            
+            createIndexes();
+            
+            jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS maintenance_leases (
+                    name VARCHAR(255) PRIMARY KEY,
+                    owner VARCHAR(255) NOT NULL,
+                    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+                )
+                """);
+            
+            // Free space on each page lets new row versions stay on the same page;
+            // updates that touch no indexed column (lease, error, timestamps) then become HOT updates
+            jdbcTemplate.execute("ALTER TABLE events SET (fillfactor = " + properties.fillfactor() + ")");
             
-            logger.info("PostgreSQL events table and indexes created/verified");
+            logger.info("PostgreSQL events table and indexes created/verified (indexStrategy={}, fillfactor={}, schemaLayout={})",
+                       properties.indexStrategy(), properties.fillfactor(), properties.schemaLayout());
             
         } catch (Exception e) {
             logger.error("Failed to initialize PostgreSQL schema", e);
@@ -69,20 +128,97 @@ public class PostgresEventStore implements EventStore {
         }
     }
     
+    /**
+     * Payloads are written once and never updated, so they live in an append-only table and
+     * status updates only rewrite the narrow events row. Rows written before the switch keep
+     * their payload in events; reads fall back to it.
+     */
+    private void createPayloadTable() {
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS event_payloads (
+                id VARCHAR(255) PRIMARY KEY,
+                payload TEXT,
+                payload_data BYTEA,
+                created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+            )
+            """);
+        jdbcTemplate.execute("ALTER TABLE events ALTER COLUMN payload DROP NOT NULL");
+        
+        if (properties.payloadCompression() != null) {
+            jdbcTemplate.execute("ALTER TABLE event_payloads ALTER COLUMN payload SET COMPRESSION " + properties.payloadCompression());
+        }
+    }
+    
+    /**
+     * Every insert maintains every index, so PARTIAL only indexes what the queries read:
+     * open events by received_at (stale scan, outbox claim, redrive), slow events, and a BRIN on the
+     * append-ordered created_at for retention cleanup. Switching strategy drops the other set.
+     */
+    private void createIndexes() {
+        if (properties.indexStrategy() == PostgresProperties.IndexStrategy.PARTIAL) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_status");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_received_at");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_total_latency");
+            
+            // IF NOT EXISTS keeps an index built with an older predicate, so that one is replaced
+            List<String> openStatusIndex = jdbcTemplate.queryForList(
+                "SELECT indexdef FROM pg_indexes WHERE tablename = 'events' AND indexname = 'idx_events_open_status'", String.class);
+            if (!openStatusIndex.isEmpty() && OPEN_STATUSES.stream().anyMatch(status -> !openStatusIndex.get(0).contains("'" + status + "'"))) {
+                jdbcTemplate.execute("DROP INDEX idx_events_open_status");
+            }
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_open_status ON events(status, received_at) WHERE status IN ("
+                + OPEN_STATUSES.stream().map(status -> "'" + status + "'").collect(Collectors.joining(", ")) + ")");
+            jdbcTemplate.execute("""
+                CREATE INDEX IF NOT EXISTS idx_events_slow ON events(total_latency_ms)
+                WHERE total_latency_ms > 1000
+                """);
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_created_at_brin ON events USING BRIN (created_at)");
+        } else {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_open_status");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_slow");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_created_at_brin");
+            
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_status ON events(status)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_received_at ON events(received_at)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_total_latency ON events(total_latency_ms)");
+        }
+    }
+    
+    /**
+     * Payload and event rows are written in one transaction, so a failed batch leaves neither
+     * behind and its events can be retried one by one
+     */
     @Override
     public void bulkInsert(List<Event> events) {
         if (events.isEmpty()) {
             return;
         }
         
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (splitPayload) {
+                    insertPayloads(events);
+                }
+                insertEvents(events);
+            });
+        } catch (DuplicateEventException e) {
+            logger.debug("Bulk insert of {} events hit events already stored: {}", events.size(), e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to bulk insert {} events into PostgreSQL", events.size(), e);
+            throw new RuntimeException("Bulk insert failed", e);
+        }
+    }
+    
+    private void insertEvents(List<Event> events) {
         try {
             String sql = """
                 INSERT INTO events (
                     id, payload, topic_partition, offset_value, status, received_at, 
                     send_timestamp_ns, received_at_orchestrator, total_latency_ms,
                     consumer_latency_ms, processing_latency_ms, publishing_latency_ms,
-                    processed_at, published_at
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    processed_at, published_at, message_key, payload_data
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
             
             int[] results = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
@@ -98,7 +234,8 @@ public class PostgresEventStore implements EventStore {
                     }
                     
                     ps.setString(1, event.getId());
-                    ps.setString(2, event.getPayload());
+                    boolean inline = !splitPayload;
+                    ps.setString(2, inline && payloadCodec == null ? event.getPayload() : null);
                     ps.setString(3, event.getTopicPartition());
                     ps.setLong(4, event.getOffsetValue());
                     ps.setString(5, event.getStatus().name());
@@ -132,6 +269,9 @@ public class PostgresEventStore implements EventStore {
                     } else {
                         ps.setNull(14, java.sql.Types.TIMESTAMP);
                     }
+                    
+                    ps.setString(15, event.getMessageKey());
+                    ps.setBytes(16, inline && payloadCodec != null ? payloadCodec.encode(event) : null);
                 }
                 
                 @Override
@@ -143,9 +283,98 @@ public class PostgresEventStore implements EventStore {
             int totalInserted = java.util.Arrays.stream(results).sum();
             logger.debug("Bulk inserted {} events into PostgreSQL", totalInserted);
             
-        } catch (Exception e) {
-            logger.error("Failed to bulk insert {} events into PostgreSQL", events.size(), e);
-            throw new RuntimeException("Bulk insert failed", e);
+        } catch (RuntimeException e) {
+            // The primary key is the only unique constraint on events
+            if (hasSqlState(e, UNIQUE_VIOLATION)) {
+                throw new DuplicateEventException("Event already stored", e);
+            }
+            throw e;
+        }
+    }
+    
+    private static boolean hasSqlState(Throwable error, String sqlState) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            // A failed JDBC batch chains the statement's own error as the next exception
+            for (SQLException next = cause instanceof SQLException sqlException ? sqlException : null;
+                 next != null; next = next.getNextException()) {
+                if (sqlState.equals(next.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Written before the event rows, so an event never exists without its payload. A payload
+     * left by an earlier delivery of the same record is kept, so only the event row can conflict.
+     */
+    private void insertPayloads(List<Event> events) {
+        String sql = "INSERT INTO event_payloads (id, payload, payload_data) VALUES (?, ?, ?) ON CONFLICT (id) DO NOTHING";
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Event event = events.get(i);
+                ps.setString(1, event.getId());
+                ps.setString(2, payloadCodec == null ? event.getPayload() : null);
+                ps.setBytes(3, payloadCodec != null ? payloadCodec.encode(event) : null);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+    
+    private List<Event> attachPayloads(List<Event> events) {
+        if (!splitPayload || events.isEmpty()) {
+            return events;
+        }
+        
+        Map<String, Event> byId = new HashMap<>();
+        events.stream().filter(event -> event.getPayload() == null).forEach(event -> byId.put(event.getId(), event));
+        if (byId.isEmpty()) {
+            return events;
+        }
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT id, payload, payload_data FROM event_payloads WHERE id = ANY (?)");
+            ps.setArray(1, connection.createArrayOf("varchar", byId.keySet().toArray()));
+            return ps;
+        }, rs -> {
+            attachPayload(byId.get(rs.getString("id")), rs);
+        });
+        return events;
+    }
+    
+    private void attachPayload(Event event, ResultSet rs) throws SQLException {
+        try {
+            event.setPayload(readPayload(rs));
+        } catch (PayloadUnavailableException e) {
+            // A referenced source record past Kafka retention fails only its own event, not the whole read
+            logger.warn("Payload of event {} unavailable: {}", event.getId(), e.getMessage());
+            event.setPayloadError(e.getMessage());
+        }
+    }
+    
+    /**
+     * @throws PayloadUnavailableException When the stored payload cannot be decoded or fetched
+     */
+    private String readPayload(ResultSet rs) throws SQLException {
+        byte[] data = rs.getBytes("payload_data");
+        if (data == null) {
+            return rs.getString("payload");
+        }
+        if (payloadCodec == null) {
+            throw new IllegalStateException("Event payload is encoded but no payload codec is configured");
+        }
+        try {
+            return payloadCodec.decode(data);
+        } catch (PayloadUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new PayloadUnavailableException("Payload could not be decoded: " + e.getMessage(), e);
         }
     }
     
@@ -169,11 +398,11 @@ public class PostgresEventStore implements EventStore {
             Object[] params;
             
             if (errorMessage != null) {
-                sql = "UPDATE events SET status = ?, error_message = ?, updated_at = ? WHERE id = ?";
-                params = new Object[]{status.name(), errorMessage, Timestamp.from(Instant.now()), eventId};
+                sql = "UPDATE events SET status = ?, error_message = ?, updated_at = ?, processed_at = CASE WHEN ? = 'SUCCESS' THEN now() ELSE processed_at END WHERE id = ?";
+                params = new Object[]{status.name(), errorMessage, Timestamp.from(Instant.now()), status.name(), eventId};
             } else {
-                sql = "UPDATE events SET status = ?, updated_at = ? WHERE id = ?";
-                params = new Object[]{status.name(), Timestamp.from(Instant.now()), eventId};
+                sql = "UPDATE events SET status = ?, updated_at = ?, processed_at = CASE WHEN ? = 'SUCCESS' THEN now() ELSE processed_at END WHERE id = ?";
+                params = new Object[]{status.name(), Timestamp.from(Instant.now()), status.name(), eventId};
             }
             
             int rowsAffected = jdbcTemplate.update(sql, params);
@@ -190,6 +419,250 @@ public class PostgresEventStore implements EventStore {
         }
     }
     
+    @Override
+    public void bulkUpdateStatus(List<String> eventIds, EventStatus status) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        
+        try {
+            // Relay-published and redriven events record when they were processed, like updateStatus
+            String sql = """
+                UPDATE events SET status = ?, updated_at = ?, lease_owner = NULL, lease_expires_at = NULL,
+                    processed_at = CASE WHEN ? = 'SUCCESS' THEN now() ELSE processed_at END
+                WHERE id = ANY (?)
+                """;
+            
+            int rowsAffected = jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setString(1, status.name());
+                ps.setTimestamp(2, Timestamp.from(Instant.now()));
+                ps.setString(3, status.name());
+                ps.setArray(4, connection.createArrayOf("varchar", eventIds.toArray()));
+                return ps;
+            });
+            
+            logger.debug("Bulk updated {} of {} events to status {}", rowsAffected, eventIds.size(), status);
+            
+        } catch (Exception e) {
+            logger.error("Failed to bulk update {} events to status {}", eventIds.size(), status, e);
+            throw new RuntimeException("Bulk status update failed", e);
+        }
+    }
+    
+    @Override
+    public int completeClaimed(List<String> eventIds, String leaseOwner) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            // A relay whose lease expired must not overwrite the state set by the relay that took over
+            String sql = """
+                UPDATE events SET status = 'SUCCESS', updated_at = ?, lease_owner = NULL, lease_expires_at = NULL,
+                    processed_at = now()
+                WHERE id = ANY (?) AND status = 'PROCESSING' AND lease_owner = ?
+                """;
+            
+            int rowsAffected = jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setTimestamp(1, Timestamp.from(Instant.now()));
+                ps.setArray(2, connection.createArrayOf("varchar", eventIds.toArray()));
+                ps.setString(3, leaseOwner);
+                return ps;
+            });
+            
+            logger.debug("Completed {} of {} events claimed by {}", rowsAffected, eventIds.size(), leaseOwner);
+            return rowsAffected;
+            
+        } catch (Exception e) {
+            logger.error("Failed to complete {} events claimed by {}", eventIds.size(), leaseOwner, e);
+            throw new RuntimeException("Claimed status update failed", e);
+        }
+    }
+    
+    @Override
+    public boolean failClaimed(String eventId, String leaseOwner, String errorMessage) {
+        try {
+            String sql = """
+                UPDATE events SET status = 'FAILED', error_message = ?, updated_at = ?, lease_owner = NULL, lease_expires_at = NULL
+                WHERE id = ? AND status = 'PROCESSING' AND lease_owner = ?
+                """;
+            
+            int rowsAffected = jdbcTemplate.update(sql, errorMessage, Timestamp.from(Instant.now()), eventId, leaseOwner);
+            logger.debug("Failed event {} claimed by {}: {}", eventId, leaseOwner, rowsAffected > 0 ? "settled" : "lease lost");
+            return rowsAffected > 0;
+            
+        } catch (Exception e) {
+            logger.error("Failed to mark event {} claimed by {} as FAILED", eventId, leaseOwner, e);
+            throw new RuntimeException("Claimed status update failed", e);
+        }
+    }
+    
+    @Override
+    public List<Event> claimPendingEvents(String leaseOwner, int limit, Duration leaseDuration) {
+        try {
+            Instant now = Instant.now();
+            
+            // SKIP LOCKED lets relays on other instances claim disjoint batches without blocking
+            String sql = """
+                UPDATE events SET status = 'PROCESSING', lease_owner = ?, lease_expires_at = ?, updated_at = ?
+                WHERE id IN (
+                    SELECT id FROM events
+                    WHERE status = 'RECEIVED'
+                       OR (status = 'PROCESSING' AND lease_expires_at < ?)
+                    ORDER BY received_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, payload, topic_partition, offset_value, status, received_at,
+                          send_timestamp_ns, received_at_orchestrator, total_latency_ms,
+                          consumer_latency_ms, processing_latency_ms, publishing_latency_ms,
+                          processed_at, published_at, error_message, message_key, payload_data
+                """;
+            
+            List<Event> claimed = jdbcTemplate.query(sql, (rs, rowNum) -> mapResultSetToEvent(rs),
+                leaseOwner, Timestamp.from(now.plus(leaseDuration)), Timestamp.from(now),
+                Timestamp.from(now), limit);
+            
+            attachPayloads(claimed);
+            claimed.sort(java.util.Comparator.comparing(Event::getReceivedAt));
+            logger.debug("Claimed {} outbox events for {}", claimed.size(), leaseOwner);
+            return claimed;
+            
+        } catch (Exception e) {
+            logger.error("Failed to claim outbox events for {}", leaseOwner, e);
+            throw new RuntimeException("Outbox claim failed", e);
+        }
+    }
+    
+    /**
+     * Keyset page on (received_at, id): each page starts where the previous one ended through
+     * the index instead of reading and discarding an OFFSET
+     */
+    @Override
+    public List<Event> findFailedEvents(Event after, Instant dueBy, int maxRetries, int limit) {
+        try {
+            List<Object> params = new ArrayList<>(List.of(Timestamp.from(dueBy), Timestamp.from(dueBy), maxRetries));
+            String keyset = "";
+            if (after != null) {
+                keyset = "AND (received_at, id) > (?, ?)";
+                params.add(Timestamp.from(after.getReceivedAt()));
+                params.add(after.getId());
+            }
+            params.add(limit);
+            
+            String sql = """
+                SELECT id, payload, topic_partition, offset_value, status, received_at,
+                       send_timestamp_ns, received_at_orchestrator, total_latency_ms,
+                       consumer_latency_ms, processing_latency_ms, publishing_latency_ms,
+                       processed_at, published_at, error_message, message_key, payload_data,
+                       retry_count, next_retry_at
+                FROM events
+                WHERE ((status = 'FAILED' AND (next_retry_at IS NULL OR next_retry_at <= ?))
+                       OR (status = 'RETRYING' AND lease_expires_at < ?))
+                  AND retry_count < ?
+                  %s
+                ORDER BY received_at, id
+                LIMIT ?
+                """.formatted(keyset);
+            
+            List<Event> failedEvents = jdbcTemplate.query(sql, (rs, rowNum) -> {
+                Event event = mapResultSetToEvent(rs);
+                event.setRetryCount(rs.getInt("retry_count"));
+                Timestamp nextRetryAt = rs.getTimestamp("next_retry_at");
+                event.setNextRetryAt(nextRetryAt != null ? nextRetryAt.toInstant() : null);
+                return event;
+            }, params.toArray());
+            attachPayloads(failedEvents);
+            
+            logger.debug("Found {} failed events due for redrive", failedEvents.size());
+            return failedEvents;
+            
+        } catch (Exception e) {
+            logger.error("Failed to find failed events", e);
+            throw new RuntimeException("Failed event query failed", e);
+        }
+    }
+    
+    @Override
+    public List<String> claimFailedEvents(List<String> eventIds, String leaseOwner, Duration leaseDuration) {
+        if (eventIds.isEmpty()) {
+            return List.of();
+        }
+        
+        try {
+            Instant now = Instant.now();
+            
+            // The status condition is re-checked under the row lock, so a concurrent claim wins once
+            String sql = """
+                UPDATE events SET status = 'RETRYING', lease_owner = ?, lease_expires_at = ?, updated_at = ?
+                WHERE id = ANY (?)
+                  AND (status = 'FAILED' OR (status = 'RETRYING' AND lease_expires_at < ?))
+                RETURNING id
+                """;
+            
+            List<String> claimed = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setString(1, leaseOwner);
+                ps.setTimestamp(2, Timestamp.from(now.plus(leaseDuration)));
+                ps.setTimestamp(3, Timestamp.from(now));
+                ps.setArray(4, connection.createArrayOf("varchar", eventIds.toArray()));
+                ps.setTimestamp(5, Timestamp.from(now));
+                return ps;
+            }, (rs, rowNum) -> rs.getString("id"));
+            
+            logger.debug("Claimed {} of {} failed events for redrive by {}", claimed.size(), eventIds.size(), leaseOwner);
+            return claimed;
+            
+        } catch (Exception e) {
+            logger.error("Failed to claim failed events for {}", leaseOwner, e);
+            throw new RuntimeException("Failed event claim failed", e);
+        }
+    }
+    
+    /**
+     * One batched statement per page; every event carries its own retry state and error
+     */
+    @Override
+    public void scheduleRetries(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        try {
+            Timestamp now = Timestamp.from(Instant.now());
+            String sql = """
+                UPDATE events SET status = 'FAILED', retry_count = ?, next_retry_at = ?, error_message = ?,
+                                  updated_at = ?, lease_owner = NULL, lease_expires_at = NULL
+                WHERE id = ?
+                """;
+            
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Event event = events.get(i);
+                    ps.setInt(1, event.getRetryCount());
+                    ps.setTimestamp(2, event.getNextRetryAt() != null ? Timestamp.from(event.getNextRetryAt()) : null);
+                    ps.setString(3, event.getErrorMessage());
+                    ps.setTimestamp(4, now);
+                    ps.setString(5, event.getId());
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return events.size();
+                }
+            });
+            
+            logger.debug("Rescheduled {} failed events", events.size());
+            
+        } catch (Exception e) {
+            logger.error("Failed to reschedule {} failed events", events.size(), e);
+            throw new RuntimeException("Retry scheduling failed", e);
+        }
+    }
+    
     @Override
     public List<Event> findStaleEvents(Duration threshold) {
         try {
@@ -198,13 +671,14 @@ public class PostgresEventStore implements EventStore {
                 SELECT id, payload, topic_partition, offset_value, status, received_at,
                        send_timestamp_ns, received_at_orchestrator, total_latency_ms,
                        consumer_latency_ms, processing_latency_ms, publishing_latency_ms,
-                       processed_at, published_at, error_message
+                       processed_at, published_at, error_message, message_key, payload_data
                 FROM events 
                 WHERE status = 'RECEIVED' AND received_at < ?
                 """;
             
             List<Event> staleEvents = jdbcTemplate.query(sql, (rs, rowNum) -> mapResultSetToEvent(rs), 
                 Timestamp.from(cutoff));
+            attachPayloads(staleEvents);
             
             logger.debug("Found {} stale events older than {}", staleEvents.size(), threshold);
             return staleEvents;
@@ -218,10 +692,11 @@ public class PostgresEventStore implements EventStore {
     private Event mapResultSetToEvent(ResultSet rs) throws SQLException {
         Event event = new Event(
             rs.getString("id"),
-            rs.getString("payload"),
+            null,
             rs.getString("topic_partition"),
             rs.getLong("offset_value")
         );
+        attachPayload(event, rs);
         
         event.setStatus(EventStatus.valueOf(rs.getString("status")));
         event.setReceivedAt(rs.getTimestamp("received_at").toInstant());
@@ -267,6 +742,7 @@ public class PostgresEventStore implements EventStore {
         }
         
         event.setErrorMessage(rs.getString("error_message"));
+        event.setMessageKey(rs.getString("message_key"));
         
         return event;
     }
@@ -315,13 +791,72 @@ public class PostgresEventStore implements EventStore {
         }
     }
     
+    /**
+     * All status counts in one pass instead of one COUNT(*) scan per status
+     */
+    @Override
+    public Map<EventStatus, Long> countEventsByStatus() {
+        try {
+            Map<EventStatus, Long> counts = new EnumMap<>(EventStatus.class);
+            jdbcTemplate.query("SELECT status, COUNT(*) FROM events GROUP BY status", rs -> {
+                counts.put(EventStatus.valueOf(rs.getString(1)), rs.getLong(2));
+            });
+            return counts;
+        } catch (Exception e) {
+            logger.error("Failed to count events by status", e);
+            throw new RuntimeException("Status count failed", e);
+        }
+    }
+    
+    @Override
+    public int deleteEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            Object[] ids = events.stream().map(Event::getId).toArray();
+            
+            int deletedCount = deleteByIds("events", ids);
+            if (splitPayload) {
+                deleteByIds("event_payloads", ids);
+            }
+            logger.debug("Deleted {} of {} events", deletedCount, events.size());
+            
+            return deletedCount;
+            
+        } catch (Exception e) {
+            logger.error("Failed to delete {} events", events.size(), e);
+            throw new RuntimeException("Event delete failed", e);
+        }
+    }
+    
+    private int deleteByIds(String table, Object[] ids) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("DELETE FROM " + table + " WHERE id = ANY (?)");
+            ps.setArray(1, connection.createArrayOf("varchar", ids));
+            return ps;
+        });
+    }
+    
     @Override
     public int cleanupOldEvents(Duration retentionPeriod) {
+        return cleanupOldEvents(retentionPeriod, Instant.MAX);
+    }
+    
+    /**
+     * Deletes in batches of CLEANUP_BATCH_SIZE rows, each its own short transaction, so a large
+     * backlog neither holds locks on millions of rows nor outlives the deadline
+     */
+    @Override
+    public int cleanupOldEvents(Duration retentionPeriod, Instant deadline) {
         try {
-            Instant cutoff = Instant.now().minus(retentionPeriod);
-            String sql = "DELETE FROM events WHERE created_at < ?";
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(retentionPeriod));
             
-            int deletedCount = jdbcTemplate.update(sql, Timestamp.from(cutoff));
+            int deletedCount = deleteBefore("events", cutoff, deadline);
+            if (splitPayload) {
+                deleteBefore("event_payloads", cutoff, deadline);
+            }
             logger.info("Cleaned up {} old events older than {}", deletedCount, retentionPeriod);
             
             return deletedCount;
@@ -331,4 +866,39 @@ public class PostgresEventStore implements EventStore {
             return 0;
         }
     }
-}
\ No newline at end of file
+    
+    private int deleteBefore(String table, Timestamp cutoff, Instant deadline) {
+        String sql = "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table + " WHERE created_at < ? LIMIT ?)";
+        
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(sql, cutoff, CLEANUP_BATCH_SIZE);
+            deleted += batch;
+        } while (batch == CLEANUP_BATCH_SIZE && Instant.now().isBefore(deadline));
+        return deleted;
+    }
+    
+    /**
+     * Upserts the lease row; the conflict update only applies while the caller already holds the
+     * lease or it has expired, so exactly one instance gets a row back. Expiry is judged by the
+     * database clock, so clock skew between instances does not matter.
+     */
+    @Override
+    public boolean tryAcquireLease(String name, String owner, Duration leaseDuration) {
+        try {
+            String sql = """
+                INSERT INTO maintenance_leases (name, owner, expires_at)
+                VALUES (?, ?, now() + ? * interval '1 millisecond')
+                ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+                WHERE maintenance_leases.owner = EXCLUDED.owner OR maintenance_leases.expires_at < now()
+                """;
+            
+            return jdbcTemplate.update(sql, name, owner, leaseDuration.toMillis()) == 1;
+            
+        } catch (Exception e) {
+            logger.error("Failed to acquire lease {} for {}", name, owner, e);
+            throw new RuntimeException("Lease acquisition failed", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.orchestrator.postgres.store;
+
+import com.orchestrator.core.store.Event;
+import com.orchestrator.core.store.EventStatus;
+import com.orchestrator.postgres.config.PostgresProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insert and status-update throughput of the events table under each index strategy.
+ * Not picked up by the default test run; start it explicitly:
+ * mvn -pl orchestrator-postgres-adapter test -Dtest=PostgresIndexStrategyBenchmark
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PostgresIndexStrategyBenchmark {
+    
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 200_000);
+    private static final int BATCH_SIZE = 1_000;
+    
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    @Test
+    public void compareIndexStrategies() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        
+        for (PostgresProperties.IndexStrategy strategy : PostgresProperties.IndexStrategy.values()) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS events");
+            PostgresEventStore store = new PostgresEventStore(jdbcTemplate, new PostgresProperties(strategy, null, null, null), null);
+            
+            // Warm-up round so both strategies run against a warm JIT and connection
+            store.bulkInsert(events("warmup", BATCH_SIZE));
+            jdbcTemplate.execute("TRUNCATE events");
+            
+            List<String> ids = new ArrayList<>(EVENTS);
+            long start = System.nanoTime();
+            for (int batch = 0; batch < EVENTS / BATCH_SIZE; batch++) {
+                List<Event> events = events(strategy.name() + "-" + batch, BATCH_SIZE);
+                store.bulkInsert(events);
+                events.forEach(event -> ids.add(event.getId()));
+            }
+            Duration insertTime = Duration.ofNanos(System.nanoTime() - start);
+            
+            start = System.nanoTime();
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                store.bulkUpdateStatus(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())), EventStatus.SUCCESS);
+            }
+            Duration updateTime = Duration.ofNanos(System.nanoTime() - start);
+            
+            assertEquals(ids.size(), store.countProcessedEvents());
+            
+            Long hotUpdates = jdbcTemplate.queryForObject(
+                "SELECT n_tup_hot_upd FROM pg_stat_user_tables WHERE relname = 'events'", Long.class);
+            String indexSize = jdbcTemplate.queryForObject(
+                "SELECT pg_size_pretty(pg_indexes_size('events'))", String.class);
+            
+            System.out.printf("%-8s inserts: %,10.0f events/s  updates: %,10.0f events/s  HOT updates: %,d  index size: %s%n",
+                strategy, ids.size() / (insertTime.toNanos() / 1e9), ids.size() / (updateTime.toNanos() / 1e9),
+                hotUpdates, indexSize);
+        }
+    }
+    
+    private static List<Event> events(String prefix, int count) {
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Event event = new Event(prefix + "-" + i, "{\"paymentId\":\"" + i + "\",\"amount\":100.00}", "payments-0", (long) i);
+            // A small share of slow events, as in production
+            event.setTotalLatencyMs(i % 100 == 0 ? 1500L : 20L);
+            events.add(event);
+        }
+        return events;
+    }
+}